@@ -0,0 +1,38 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.Waypoint;
+import frc.robot.lib.pathplanner.org.json.simple.parser.ParseException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Reads the real .path files for the benchmarks. Filesystem.getDeployDirectory() needs the HAL, so
+ * the directory comes from the pathplanner.dir property set in build.gradle instead.
+ */
+final class BenchmarkPaths {
+  static final PathConstraints CONSTRAINTS = new PathConstraints(4.5, 3);
+
+  private BenchmarkPaths() {}
+
+  static byte[] read(String name) throws IOException {
+    File dir = new File(System.getProperty("pathplanner.dir", "src/main/deploy/pathplanner"));
+    return Files.readAllBytes(new File(dir, name + ".path").toPath());
+  }
+
+  static List<Waypoint> waypoints(String name) throws IOException, ParseException {
+    return PathFileDecoder.decode(read(name)).getWaypoints();
+  }
+
+  static List<EventMarker> markers(String name) throws IOException, ParseException {
+    return PathFileDecoder.decode(read(name)).getMarkers();
+  }
+
+  static PathResolution resolution(String resolution) {
+    return resolution.equals("fixed")
+        ? PathResolution.fixed(PathResolution.MIN_STEP)
+        : PathResolution.DEFAULT;
+  }
+}
@@ -0,0 +1,51 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.Waypoint;
+import frc.robot.lib.pathplanner.org.json.simple.parser.JSONParser;
+import frc.robot.lib.pathplanner.org.json.simple.parser.ParseException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Parsing .path files with the bundled json.simple parser, into a tree and streamed into waypoints */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonParserBenchmark {
+  @Param({"A2[3]-M-BACK-BLUE", "B2[1]-C-LOW", "C2[3]-M-BACK"})
+  public String pathName;
+
+  private byte[] fileContent;
+  private String fileString;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    fileContent = BenchmarkPaths.read(pathName);
+    fileString = new String(fileContent, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Object parse() throws ParseException {
+    return new JSONParser().parse(fileString);
+  }
+
+  @Benchmark
+  public List<Waypoint> decodeWaypoints() throws ParseException {
+    return PathFileDecoder.decode(fileContent).getWaypoints();
+  }
+}
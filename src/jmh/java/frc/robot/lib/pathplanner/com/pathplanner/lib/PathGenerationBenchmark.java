@@ -0,0 +1,143 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.Waypoint;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full path generation and each of its phases. Every phase runs on the output of the phases before
+ * it, which is rebuilt before each call since the phases modify the states in place.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathGenerationBenchmark {
+  @State(Scope.Thread)
+  public static class Path {
+    @Param({
+      "A2[3]-M-BACK-BLUE",
+      "B2[1]-C-LOW",
+      "B2[1]-M-C-HIGH",
+      "B2[1]-M-C-LOW",
+      "C2[2]-M-M-H-BLUE",
+      "C2[2]-M-M-H-RED",
+      "C2[3]-M-BACK"
+    })
+    public String pathName;
+
+    @Param({"adaptive", "fixed"})
+    public String resolution;
+
+    List<Waypoint> waypoints;
+    List<EventMarker> markers;
+    PathResolution pathResolution;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      TrajectoryCache.setEnabled(false);
+
+      waypoints = BenchmarkPaths.waypoints(pathName);
+      markers = BenchmarkPaths.markers(pathName);
+      pathResolution = BenchmarkPaths.resolution(resolution);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Joined {
+    List<PathPlannerState> states;
+
+    @Setup(Level.Invocation)
+    public void setup(Path path) {
+      states =
+          PathPlannerTrajectory.joinSplines(
+              path.waypoints, BenchmarkPaths.CONSTRAINTS.maxVelocity, path.pathResolution, 0);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class MaxVelocity {
+    List<PathPlannerState> states;
+
+    @Setup(Level.Invocation)
+    public void setup(Path path) {
+      states =
+          PathPlannerTrajectory.joinSplines(
+              path.waypoints, BenchmarkPaths.CONSTRAINTS.maxVelocity, path.pathResolution, 0);
+      PathPlannerTrajectory.calculateMaxVel(
+          states,
+          BenchmarkPaths.CONSTRAINTS.maxVelocity,
+          BenchmarkPaths.CONSTRAINTS.maxAcceleration,
+          false);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Velocity {
+    List<PathPlannerState> states;
+
+    @Setup(Level.Invocation)
+    public void setup(Path path) {
+      states =
+          PathPlannerTrajectory.joinSplines(
+              path.waypoints, BenchmarkPaths.CONSTRAINTS.maxVelocity, path.pathResolution, 0);
+      PathPlannerTrajectory.calculateMaxVel(
+          states,
+          BenchmarkPaths.CONSTRAINTS.maxVelocity,
+          BenchmarkPaths.CONSTRAINTS.maxAcceleration,
+          false);
+      PathPlannerTrajectory.calculateVelocity(
+          states, path.waypoints, BenchmarkPaths.CONSTRAINTS.maxAcceleration);
+    }
+  }
+
+  @Benchmark
+  public PathPlannerTrajectory generate(Path path) {
+    return new PathPlannerTrajectory(
+        path.waypoints, path.markers, BenchmarkPaths.CONSTRAINTS, false, true, path.pathResolution);
+  }
+
+  @Benchmark
+  public List<PathPlannerState> joinSplines(Path path) {
+    return PathPlannerTrajectory.joinSplines(
+        path.waypoints, BenchmarkPaths.CONSTRAINTS.maxVelocity, path.pathResolution, 0);
+  }
+
+  @Benchmark
+  public List<PathPlannerState> calculateMaxVel(Joined joined) {
+    PathPlannerTrajectory.calculateMaxVel(
+        joined.states,
+        BenchmarkPaths.CONSTRAINTS.maxVelocity,
+        BenchmarkPaths.CONSTRAINTS.maxAcceleration,
+        false);
+    return joined.states;
+  }
+
+  @Benchmark
+  public List<PathPlannerState> calculateVelocity(Path path, MaxVelocity maxVelocity) {
+    PathPlannerTrajectory.calculateVelocity(
+        maxVelocity.states, path.waypoints, BenchmarkPaths.CONSTRAINTS.maxAcceleration);
+    return maxVelocity.states;
+  }
+
+  @Benchmark
+  public List<PathPlannerState> recalculateValues(Velocity velocity) {
+    PathPlannerTrajectory.recalculateValues(velocity.states, false);
+    return velocity.states;
+  }
+}
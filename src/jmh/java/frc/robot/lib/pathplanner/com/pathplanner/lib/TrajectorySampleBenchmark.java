@@ -0,0 +1,105 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import edu.wpi.first.math.trajectory.Trajectory.State;
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sampling a generated path the way the path following commands do, plus mirroring a path for
+ * the red alliance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class TrajectorySampleBenchmark {
+  private static final int SAMPLE_COUNT = 1024;
+
+  @Param({"A2[3]-M-BACK-BLUE", "C2[3]-M-BACK"})
+  public String pathName;
+
+  @Param({"adaptive", "fixed"})
+  public String resolution;
+
+  private PathPlannerTrajectory trajectory;
+  private final MutablePathPlannerState state = new MutablePathPlannerState();
+  private final double[] randomTimes = new double[SAMPLE_COUNT];
+  private int next = 0;
+  private double loopTime = 0;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    TrajectoryCache.setEnabled(false);
+
+    trajectory =
+        new PathPlannerTrajectory(
+            BenchmarkPaths.waypoints(pathName),
+            BenchmarkPaths.markers(pathName),
+            BenchmarkPaths.CONSTRAINTS,
+            false,
+            true,
+            BenchmarkPaths.resolution(resolution));
+
+    Random random = new Random(862);
+    for (int i = 0; i < SAMPLE_COUNT; i++) {
+      randomTimes[i] = random.nextDouble() * trajectory.getTotalTimeSeconds();
+    }
+  }
+
+  private double nextRandomTime() {
+    next = (next + 1) % SAMPLE_COUNT;
+    return randomTimes[next];
+  }
+
+  /** Time moving forward 20ms per call like a path following command, restarting at the end */
+  private double nextLoopTime() {
+    loopTime += 0.02;
+    if (loopTime > trajectory.getTotalTimeSeconds()) {
+      loopTime = 0;
+    }
+    return loopTime;
+  }
+
+  @Benchmark
+  public State sampleRandom() {
+    return trajectory.sample(nextRandomTime());
+  }
+
+  @Benchmark
+  public MutablePathPlannerState sampleRandomMutable() {
+    trajectory.sample(nextRandomTime(), state);
+    return state;
+  }
+
+  @Benchmark
+  public State sampleLoop() {
+    return trajectory.sample(nextLoopTime());
+  }
+
+  @Benchmark
+  public MutablePathPlannerState sampleLoopMutable() {
+    trajectory.sample(nextLoopTime(), state);
+    return state;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public PathPlannerTrajectory transformForAlliance() {
+    return PathPlannerTrajectory.transformTrajectoryForAlliance(
+        trajectory, DriverStation.Alliance.Red);
+  }
+}
@@ -12,6 +12,7 @@ import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.util.Units;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.auto.PIDConstants;
+import frc.robot.lib.swervelib.StatusFrameProfile;
 
 /**
  * Class to hold all of the constants for the robot
@@ -70,7 +71,22 @@ public final class Constants {
         public static final int STEER_CURRENT_LIMIT = 30;
         public static final double NOMINAL_VOLTAGE = 12d;
 
-        public static final double LOG_PERIOD = 0.18;
+        // Setpoints closer than this to the last one sent aren't sent again, to save CAN bandwidth
+        public static final double DRIVE_SETPOINT_EPSILON = 0.01; // meters per second
+        public static final double STEER_SETPOINT_EPSILON = Math.toRadians(0.1);
+        // Seconds before an unchanged setpoint is sent again anyway
+        public static final double SETPOINT_REFRESH_PERIOD = 0.5;
+
+        // Seconds between the odometry thread polling the sensors. The estimator only updates when a new
+        // encoder or gyro frame has arrived, so this bounds how late a frame's timestamp can be
+        public static final double ODOMETRY_PERIOD = 0.005;
+
+        // Seconds of odometry poses to keep for looking up past poses
+        public static final double POSE_HISTORY_SECONDS = 3;
+
+        // Seconds between publishing each drivetrain value to the dashboard
+        public static final double LOG_PERIOD = 0.1;
+        public static final double SLOW_LOG_PERIOD = 0.5;
 
         public static final double SLOW_MODE_TRANSLATIONAL_MULT = 0.7;
         public static final double SLOW_MODE_ROTATIONAL_MULT = 0.5;
@@ -81,6 +97,28 @@ public final class Constants {
         // Standard dev for robot pose
         public static final Matrix<N3, N1> STANDARD_DEV_POSE_MATRIX = VecBuilder.fill(0.1, 0.1, 0.1);
 
+        // Standard dev for vision measurements that don't give their own
+        public static final Matrix<N3, N1> STANDARD_DEV_VISION_MATRIX = VecBuilder.fill(0.9, 0.9, 0.9);
+
+        // Vision measurements further than this from where we were, in meters, are thrown out
+        public static final double MAX_VISION_POSE_ERROR = 1.0;
+
+        // Simulated camera for testing vision fusion in simulation
+        public static final double SIM_VISION_PERIOD = 0.1;
+        public static final double SIM_VISION_LATENCY = 0.05;
+
+        // How often the modules send status frames in each mode, in milliseconds (status 0, 1, 2)
+        public static final class StatusFrames {
+            // Fast position frames so odometry gets fresh data
+            public static final StatusFrameProfile AUTO = StatusFrameProfile.builder("auto")
+                    .withDrivePeriods(100, 20, 10).withSteerPeriods(100, 20, 10).withAbsoluteEncoderPeriod(100).build();
+            public static final StatusFrameProfile TELEOP = StatusFrameProfile.builder("teleop")
+                    .withDrivePeriods(100, 20, 20).withSteerPeriods(100, 20, 20).withAbsoluteEncoderPeriod(100).build();
+            // Still track the robot if it gets pushed, but slowly
+            public static final StatusFrameProfile DISABLED = StatusFrameProfile.builder("disabled")
+                    .withDrivePeriods(250, 100, 50).withSteerPeriods(250, 100, 50).withAbsoluteEncoderPeriod(100).build();
+        }
+
         // Gains vaules for PIDControllers
         public static final class Gains {
             public static final double kP = 0.2;
@@ -3,11 +3,6 @@ package frc.robot.commands;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Transform2d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.Constants.DrivetrainConstants;
 import frc.robot.subsystems.Drivetrain;
@@ -66,24 +61,32 @@ public class SwerveDrive extends CommandBase {
 
         // Get direction and magnitude of linear axes
         double linearMagnitude = Math.hypot(leftX, leftY);
-        Rotation2d linearDirection = new Rotation2d(leftX, leftY);
+        double linearDirection = Math.atan2(leftY, leftX);
 
         // Apply squaring
         linearMagnitude = Math.pow(linearMagnitude, 3);
         rightX = Math.pow(rightX, 3);
 
         // Calcaulate new linear components
-        Translation2d linearVelocity = new Pose2d(new Translation2d(), linearDirection).transformBy(new Transform2d(new Translation2d(linearMagnitude, 0.0), new Rotation2d())).getTranslation();
+        double linearX = linearMagnitude * Math.cos(linearDirection);
+        double linearY = linearMagnitude * Math.sin(linearDirection);
+
+        double omega = drivetrain.percentOutputToRadiansPerSecond(rightX);
 
         if (!robotCentric.getAsBoolean()) { // Changes from field relative to robot relative to help with line up
-            drivetrain.drive(
-                    // Supply chassie speeds from the translation suppliers using feild relative control
-                    // TODO: x and y fliped
-                    ChassisSpeeds.fromFieldRelativeSpeeds(drivetrain.percentOutputToMetersPerSecond(-linearVelocity.getX()), drivetrain.percentOutputToMetersPerSecond(linearVelocity.getY()),
-                            drivetrain.percentOutputToRadiansPerSecond(rightX), drivetrain.getYaw2d()));
+            // Supply chassie speeds from the translation suppliers using feild relative control
+            // TODO: x and y fliped
+            double fieldX = drivetrain.percentOutputToMetersPerSecond(-linearX);
+            double fieldY = drivetrain.percentOutputToMetersPerSecond(linearY);
+
+            // Rotate from field relative to robot relative, the same as ChassisSpeeds.fromFieldRelativeSpeeds
+            double yaw = drivetrain.getYawRadians();
+            double cos = Math.cos(yaw);
+            double sin = Math.sin(yaw);
+            drivetrain.drive(fieldX * cos + fieldY * sin, -fieldX * sin + fieldY * cos, omega);
         } else {
             // create robot relative speeds
-            drivetrain.drive(new ChassisSpeeds(drivetrain.percentOutputToMetersPerSecond(-linearVelocity.getY()), drivetrain.percentOutputToMetersPerSecond(-linearVelocity.getX()), drivetrain.percentOutputToRadiansPerSecond(rightX)));
+            drivetrain.drive(drivetrain.percentOutputToMetersPerSecond(-linearY), drivetrain.percentOutputToMetersPerSecond(-linearX), omega);
         }
     }
 
@@ -9,9 +9,16 @@ import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import frc.robot.lib.auto.Autonomous;
 import frc.robot.lib.auto.AutonomousCommandFactory;
+import frc.robot.lib.profiling.LoopProfiler;
+import frc.robot.lib.profiling.LoopTimer;
 
 import java.io.IOException;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base robot class, provides
@@ -21,7 +28,12 @@ import java.util.Properties;
  * periods {@link LightningRobot#robotBackgroundPeriodic() background},
  * {@link LightningRobot#robotLowPriorityPeriodic() low}, and
  * {@link LightningRobot#robotMediumPriorityPeriodic() medium} priority
- * loops.
+ * loops. Each phase of the loop is timed by
+ * {@link frc.robot.lib.profiling.LoopProfiler}.
+ *
+ * The background and low priority loops run on their own thread, so they
+ * can never delay the main loop. Anything they need to hand back to the main
+ * loop goes through {@link LightningRobot#runOnMainThread(Runnable)}.
  *
  * Uses {@link frc.robot.lib.auto.Autonomous} to configure autonomous
  * commands. Also includes
@@ -40,12 +52,33 @@ public class LightningRobot extends TimedRobot {
 
     private int medPriorityFreq = (int) Math.round(0.1 / getPeriod());
 
-    private int lowPriorityFreq = (int) Math.round(1 / getPeriod());
+    private final static double LOW_PRIORITY_PERIOD = 1.0;
+
+    private final static double BACKGROUND_PRIORITY_PERIOD = 10.0;
+
+    // Runs the low priority and background loops, shared so a slow background
+    // loop delays the next low priority loop instead of running alongside it
+    private final ScheduledExecutorService backgroundExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LightningRobot-Background");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
 
-    private int backgroundPriorityFreq = (int) Math.round(10 / getPeriod());
+    // Work handed back to the main loop from other threads
+    private static final Queue<Runnable> mainThreadQueue = new ConcurrentLinkedQueue<>();
 
     private Command autonomousCommand;
 
+    // Timers for each phase of the loop
+    private final LoopTimer modeTimer = LoopProfiler.getTimer("ModePeriodic");
+    private final LoopTimer mediumPriorityTimer = LoopProfiler.getTimer("MediumPriority");
+    private final LoopTimer lowPriorityTimer = LoopProfiler.getBackgroundTimer("LowPriority");
+    private final LoopTimer backgroundPriorityTimer = LoopProfiler.getBackgroundTimer("BackgroundPriority");
+    private final LoopTimer mainThreadQueueTimer = LoopProfiler.getTimer("MainThreadQueue");
+    private final LoopTimer schedulerTimer = LoopProfiler.getTimer("Scheduler");
+    private final LoopTimer dashboardTimer = LoopProfiler.getTimer("Dashboard");
+
     public LightningRobot(LightningContainer container) {
         this.container = container;
     }
@@ -60,11 +93,15 @@ public class LightningRobot extends TimedRobot {
     }
 
     /**
-     * Nothing should happen here.
+     * Builds autonomous commands as they finish generating so the selected
+     * one is ready by autonomousInit.
+     *
+     * If you override this method, be sure to call {@code super.disabledPeriodic()}
      */
     @Override
     public void disabledPeriodic() {
-        /* Do Nothing */ }
+        Autonomous.buildReady();
+    }
 
     /**
      * This function is run when the robot is first started up and should be
@@ -109,6 +146,55 @@ public class LightningRobot extends TimedRobot {
 
         // Connects to the path planner server
         AutonomousCommandFactory.connectToServer(5811);
+
+        // Start timing subsystems and commands
+        LoopProfiler.install();
+
+        // Start the low priority and background loops once the robot has settled
+        backgroundExecutor.scheduleWithFixedDelay(() -> runBackground(this::robotLowPriorityPeriodic, lowPriorityTimer), (long) (SETTLE_TIME * 1000),
+                (long) (LOW_PRIORITY_PERIOD * 1000), TimeUnit.MILLISECONDS);
+        backgroundExecutor.scheduleWithFixedDelay(() -> runBackground(this::robotBackgroundPeriodic, backgroundPriorityTimer), (long) (SETTLE_TIME * 1000),
+                (long) (BACKGROUND_PRIORITY_PERIOD * 1000), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs something on the main thread at the start of the next
+     * {@link #robotPeriodic()}, before the command scheduler. This is how the
+     * background and low priority loops, or any other thread, should hand
+     * results back to subsystems and commands.
+     *
+     * @param runnable the work to run on the main thread, should be quick
+     */
+    public static void runOnMainThread(Runnable runnable) {
+        mainThreadQueue.add(runnable);
+    }
+
+    // Runs one of the background loops, an exception is reported and the loop
+    // keeps running on its next period
+    private void runBackground(Runnable loop, LoopTimer timer) {
+        long start = System.nanoTime();
+        try {
+            loop.run();
+        } catch (RuntimeException e) {
+            DriverStation.reportError("Unhandled exception in " + timer.getName() + " loop: " + e.getMessage(), e.getStackTrace());
+        }
+        long nanos = System.nanoTime() - start;
+
+        // Timers are only touched by the main thread
+        runOnMainThread(() -> timer.record(nanos));
+    }
+
+    /**
+     * Times the whole loop. The mode specific periodic runs before
+     * {@link #robotPeriodic()}, and the dashboard updates run after it.
+     */
+    @Override
+    protected void loopFunc() {
+        LoopProfiler.startLoop();
+        modeTimer.start();
+        super.loopFunc();
+        dashboardTimer.stop();
+        LoopProfiler.endLoop(getPeriod());
     }
 
     /**
@@ -121,36 +207,51 @@ public class LightningRobot extends TimedRobot {
      * LiveWindow and Shuffleboard integrated updating.
      *
      * If you override this method, be sure to call super.robotPeriod() as
-     * it drives our lower priority loops, datalogging, fault monitoring,
+     * it drives our medium priority loop, work handed back with
+     * {@link #runOnMainThread(Runnable)}, datalogging, fault monitoring,
      * etc.
      */
     @Override
     public void robotPeriodic() {
+        // Includes the mode init on a mode change
+        modeTimer.stop();
+
         double time = Timer.getFPGATimestamp();
         if (time > SETTLE_TIME) {
             counter += 1;
             if (counter % medPriorityFreq == 0) {
+                mediumPriorityTimer.start();
                 robotMediumPriorityPeriodic();
+                mediumPriorityTimer.stop();
             }
-            if (counter % lowPriorityFreq == 0) {
-                robotLowPriorityPeriodic();
-            }
-            if (counter % backgroundPriorityFreq == 0) {
-                robotBackgroundPeriodic();
+        }
+
+        // Run anything handed back from other threads
+        if (!mainThreadQueue.isEmpty()) {
+            mainThreadQueueTimer.start();
+            Runnable runnable;
+            while ((runnable = mainThreadQueue.poll()) != null) {
+                runnable.run();
             }
+            mainThreadQueueTimer.stop();
         }
 
+        schedulerTimer.start();
+        LoopProfiler.startScheduler();
         CommandScheduler.getInstance().run();
+        schedulerTimer.stop();
+
+        // SmartDashboard, LiveWindow and Shuffleboard update after this returns
+        dashboardTimer.start();
     }
 
     /**
      * A slower loop, running once every 10 seconds
      *
-     * Note as currently implemented it still needs to
-     * complete in our loop time or it delay higher
-     * priority opterations. If you have a low priority,
-     * long running operation, consider creating a background
-     * thread.
+     * Runs on the background thread, not the main thread, so it
+     * may take as long as it needs. It must not touch subsystems
+     * or commands directly, hand results back with
+     * {@link #runOnMainThread(Runnable)}.
      */
     protected void robotBackgroundPeriodic() {
         // DataLogger.flush();
@@ -160,11 +261,12 @@ public class LightningRobot extends TimedRobot {
     /**
      * A slow loop, running once a second
      *
-     * Note as currently implemented it still needs to
-     * complete in our loop time or it delay higher
-     * priority opterations. If you have a low priority,
-     * long running operation, consider creating a background
-     * thread.
+     * Runs on the background thread, not the main thread, so it
+     * can never delay motor output. It must not touch subsystems
+     * or commands directly, hand results back with
+     * {@link #runOnMainThread(Runnable)}. It shares the thread
+     * with {@link #robotBackgroundPeriodic()}, so it is delayed
+     * while that runs.
      */
     protected void robotLowPriorityPeriodic() {
         // DataLogger.getLogger().getLogWriter().drain();
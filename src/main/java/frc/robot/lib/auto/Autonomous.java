@@ -1,8 +1,15 @@
 package frc.robot.lib.auto;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
@@ -11,6 +18,16 @@ import edu.wpi.first.wpilibj2.command.Command;
 /**
  * Class for registering and loading autonomous command to the shuffleboard for
  * choosing
+ *
+ * Commands can be registered already built, or lazily by name with a
+ * generator and a builder. Lazy autons are generated in parallel in the
+ * background once {@link #load()} is called, and built on the main thread as
+ * they finish.
+ *
+ * When a path file changes, from PathPlanner or a {@link PathFileWatcher},
+ * the lazy auton of the same name is generated again in the background and
+ * its rebuilt command replaces the old one in the chooser, so paths can be
+ * tuned without restarting the robot code.
  */
 public class Autonomous {
 
@@ -20,8 +37,14 @@ public class Autonomous {
     // Hashmap of possible autons
     private static HashMap<String, Command> autons = new HashMap<>();
 
+    // Autons that are generated in the background, in registration order
+    private static LinkedHashMap<String, LazyAuton<?>> lazyAutons = new LinkedHashMap<>();
+
+    // Names of changed paths, from any thread, applied on the main thread
+    private static ConcurrentLinkedQueue<String> changedPaths = new ConcurrentLinkedQueue<>();
+
     // Sendable chooser to select an auton from the dashboard
-    private static SendableChooser<Command> chooser = new SendableChooser<>();
+    private static SendableChooser<String> chooser = new SendableChooser<>();
 
     /**
      * @return returns the hashmap of autonomous commands
@@ -33,7 +56,7 @@ public class Autonomous {
     /**
      * Used to add commands to the autons hashmap to later be loaded onto the
      * dashboard
-     * 
+     *
      * @param name name of the command to be displayed to the shuffleboard
      * @param cmd  the desired command to registerd
      */
@@ -41,35 +64,206 @@ public class Autonomous {
         autons.put(name, cmd);
     }
 
+    /**
+     * Used to register an auton that is generated in the background. The
+     * generator runs on a worker thread alongside every other lazy auton, the
+     * builder runs on the main thread once generation is done. The auton is
+     * generated again whenever the path file with the same name changes.
+     *
+     * @param name      name of the command to be displayed to the shuffleboard
+     * @param generator does the expensive work, must not touch anything owned by
+     *                  the main thread
+     * @param builder   builds the command from the generated result
+     */
+    public static <T> void registerLazy(String name, Supplier<T> generator, Function<T, Command> builder) {
+        lazyAutons.put(name, new LazyAuton<>(name, generator, builder));
+    }
+
     /**
      * Load method should be called on robotInit to add all the desired commands to
-     * the chooser and disply it on the dashboard
+     * the chooser and disply it on the dashboard. Also starts generating the lazy
+     * autons.
      */
     public static void load() {
         ShuffleboardTab tab = Shuffleboard.getTab("Autonomous");
         if (autons != null && !autons.isEmpty()) {
             Set<String> names = autons.keySet();
             for (var name : names) {
-                loadRegisteredCommand(name, autons.get(name));
+                loadRegisteredCommand(name);
                 System.out.println("Autonomous.load " + name);
             }
         }
+        for (LazyAuton<?> auton : lazyAutons.values()) {
+            auton.start();
+            loadRegisteredCommand(auton.name);
+            System.out.println("Autonomous.load " + auton.name + " (generating)");
+        }
         tab.add("Auto Mode", chooser);
+
+        if (!lazyAutons.isEmpty()) {
+            PathFileWatcher.start(Autonomous::reload);
+        }
+    }
+
+    /**
+     * Marks a path file as changed so the auton made from it is generated
+     * again. Safe to call from any thread, the auton is regenerated and
+     * swapped in by {@link #buildReady()} while disabled.
+     *
+     * @param pathName name of the .path file, without the extension
+     */
+    public static void reload(String pathName) {
+        changedPaths.add(pathName);
     }
 
     /**
+     * Builds the commands for any lazy autons that have finished generating.
+     * Should be called periodically while disabled so the selected auton is
+     * ready to go by autonomousInit.
+     */
+    public static void buildReady() {
+        regenerateChanged();
+
+        for (LazyAuton<?> auton : lazyAutons.values()) {
+            auton.buildIfReady();
+        }
+    }
+
+    /**
+     * @return true if every lazy auton has finished generating
+     */
+    public static boolean isGenerated() {
+        for (LazyAuton<?> auton : lazyAutons.values()) {
+            if (!auton.isGenerated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the selected autonomous command. If the selected auton has never
+     * finished generating this waits for it. An auton being generated again
+     * after a path change gives its previous command, the new one is only
+     * swapped in by {@link #buildReady()}.
+     *
      * @return returns the currently selected autonomous command
      */
     public static Command getAutonomous() {
-        return chooser.getSelected();
+        String name = chooser.getSelected();
+        if (name == null) {
+            return null;
+        }
+
+        LazyAuton<?> auton = lazyAutons.get(name);
+        if (auton != null) {
+            return auton.getCommand();
+        }
+
+        return autons.get(name);
     }
 
-    private static void loadRegisteredCommand(String name, Command command) {
+    private static void regenerateChanged() {
+        if (changedPaths.isEmpty()) {
+            return;
+        }
+
+        // PathPlanner and the file watcher usually both report the same change
+        Set<String> names = new LinkedHashSet<>();
+        String name;
+        while ((name = changedPaths.poll()) != null) {
+            names.add(name);
+        }
+
+        for (String changed : names) {
+            LazyAuton<?> auton = lazyAutons.get(changed);
+            if (auton != null) {
+                auton.generate();
+                System.out.println("Autonomous.reload " + changed);
+            }
+        }
+    }
+
+    private static void loadRegisteredCommand(String name) {
         if (autonCommandCount == 0)
-            chooser.setDefaultOption(name, command);
+            chooser.setDefaultOption(name, name);
         else
-            chooser.addOption(name, command);
+            chooser.addOption(name, name);
         autonCommandCount++;
     }
 
+    private static class LazyAuton<T> {
+        private final String name;
+        private final Supplier<T> generator;
+        private final Function<T, Command> builder;
+
+        private CompletableFuture<T> generated;
+        private Command command;
+        // Built from the latest generation, and built from any generation
+        private boolean isBuilt = false;
+        private boolean hasBuilt = false;
+
+        private LazyAuton(String name, Supplier<T> generator, Function<T, Command> builder) {
+            this.name = name;
+            this.generator = generator;
+            this.builder = builder;
+        }
+
+        private void start() {
+            if (generated == null) {
+                generate();
+            }
+        }
+
+        private void generate() {
+            // The current command stays in use until buildIfReady builds the new one
+            isBuilt = false;
+            generated = TrajectoryGenerationService.submit(() -> {
+                long start = System.nanoTime();
+                T result = generator.get();
+                System.out.printf("Autonomous.generate %s took %.1f ms%n", name, (System.nanoTime() - start) / 1e6);
+                return result;
+            });
+        }
+
+        private boolean isGenerated() {
+            return generated != null && generated.isDone();
+        }
+
+        private void buildIfReady() {
+            if (!isBuilt && isGenerated()) {
+                build();
+            }
+        }
+
+        private Command getCommand() {
+            if (hasBuilt) {
+                return command;
+            }
+
+            // In case load() was never called
+            start();
+
+            if (!generated.isDone()) {
+                long start = System.nanoTime();
+                DriverStation.reportWarning("Autonomous " + name + " is not ready yet, waiting for it to generate", false);
+                generated.handle((result, error) -> result).join();
+                System.out.printf("Autonomous waited %.1f ms for %s%n", (System.nanoTime() - start) / 1e6, name);
+            }
+
+            build();
+            return command;
+        }
+
+        private void build() {
+            isBuilt = true;
+            hasBuilt = true;
+            try {
+                command = builder.apply(generated.join());
+            } catch (RuntimeException e) {
+                // Keeps the last command that built, if there was one
+                DriverStation.reportError("Unable to generate autonomous " + name + ": " + e.getMessage(), e.getStackTrace());
+            }
+        }
+    }
 }
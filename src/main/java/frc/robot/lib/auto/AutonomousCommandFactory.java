@@ -2,6 +2,7 @@ package frc.robot.lib.auto;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -11,7 +12,6 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.PathConstraints;
@@ -64,7 +64,9 @@ public class AutonomousCommandFactory {
     }
 
     /**
-     * Method to create autonomous trajectories.
+     * Method to create autonomous trajectories. The path group is only registered
+     * here, it is generated in the background alongside the other autons once
+     * {@link Autonomous#load()} is called.
      * 
      * @param name name of the .path file from pathplanner
      * @param eventMap the hashmap of events for the path
@@ -73,33 +75,41 @@ public class AutonomousCommandFactory {
      */
     public void makeTrajectory(String name, HashMap<String, Command> eventMap, PathConstraints constraint, PathConstraints... constraints) {
 
-        List<PathPlannerTrajectory> trajectory = PathPlanner.loadPathGroup(name, constraint, constraints);
-
-        SwerveAutoBuilder autoBuilder = new SwerveAutoBuilder(getPose, resetPose, kinematics, driveConstants, thetaConstants, poseConstants, setStates, eventMap, drivetrain);
-
-        Autonomous.register(name, autoBuilder.fullAuto(trajectory));
+        Autonomous.registerLazy(name, () -> {
+            List<PathPlannerTrajectory> trajectory = PathPlanner.loadPathGroup(name, constraint, constraints);
+            if (trajectory == null) {
+                throw new IllegalStateException("Unable to load path group " + name);
+            }
+            return trajectory;
+        }, trajectory -> {
+            SwerveAutoBuilder autoBuilder = new SwerveAutoBuilder(getPose, resetPose, kinematics, driveConstants, thetaConstants, poseConstants, setStates, eventMap, drivetrain);
+
+            return autoBuilder.fullAuto(trajectory);
+        });
     }
 
     /**
-     * Method to produce a manual trajectory using pahtplanners {@link PathPoint}
+     * Method to produce a manual trajectory using pahtplanners {@link PathPoint}.
+     * The path is generated in the background so the main loop never waits on
+     * it, the robot holds still until the path is ready and then follows it.
      * 
      * @param PathConstraints velocity and acceleration cap for the path to be run
      * @param point1 the starting point of the path
      * @param point2 the second point in the path
      * @param points list of more points to run in the path
-     * 
-     * @return a {@link PPSwerveControllerCommand} with all the listed path points
      */
     public void createManualTrajectory(PathConstraints PathConstraints, PathPoint point1, PathPoint point2, PathPoint... points) {
 
-        PathPlannerTrajectory trajectory = PathPlanner.generatePath(PathConstraints, point1, point2, points);
+        CompletableFuture<PathPlannerTrajectory> trajectory = TrajectoryGenerationService.generatePath(PathConstraints, point1, point2, points);
 
-        PPSwerveControllerCommand command = new PPSwerveControllerCommand(trajectory, getPose, kinematics, new PIDController(driveConstants.kP, driveConstants.kI, driveConstants.kD),
-                new PIDController(driveConstants.kP, driveConstants.kI, driveConstants.kD), new PIDController(thetaConstants.kP, thetaConstants.kI, thetaConstants.kD),
-                new PIDController(poseConstants.kP, poseConstants.kI, poseConstants.kD), setStates, drivetrain);
+        new AwaitTrajectoryCommand<>(trajectory, this::makeSwerveControllerCommand, drivetrain).schedule();
 
-        command.schedule();
+    }
 
+    private PPSwerveControllerCommand makeSwerveControllerCommand(PathPlannerTrajectory trajectory) {
+        return new PPSwerveControllerCommand(trajectory, getPose, kinematics, new PIDController(driveConstants.kP, driveConstants.kI, driveConstants.kD),
+                new PIDController(driveConstants.kP, driveConstants.kI, driveConstants.kD), new PIDController(thetaConstants.kP, thetaConstants.kI, thetaConstants.kD),
+                new PIDController(poseConstants.kP, poseConstants.kI, poseConstants.kD), setStates, drivetrain);
     }
 
     public PathPoint makePathPoint(double x, double y, double heading) {
@@ -112,6 +122,7 @@ public class AutonomousCommandFactory {
     }
 
     public static void connectToServer(int ServerPort) {
+        PathPlannerServer.setPathUpdateListener(Autonomous::reload);
         PathPlannerServer.startServer(ServerPort);
     }
 }
@@ -0,0 +1,89 @@
+package frc.robot.lib.auto;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+/**
+ * Waits for a trajectory being generated in the background, then builds and
+ * runs the command that follows it.
+ *
+ * The subsystems are required while waiting, so the robot holds still rather
+ * than running its default commands. If generation fails the error is
+ * reported and the command ends.
+ */
+public class AwaitTrajectoryCommand<T> extends CommandBase {
+
+    private final CompletableFuture<T> trajectory;
+    private final Function<T, Command> commandFactory;
+
+    private Command command;
+    private boolean failed;
+
+    /**
+     * Creates a new AwaitTrajectoryCommand
+     *
+     * @param trajectory     the trajectory being generated, usually from
+     *                       {@link TrajectoryGenerationService}
+     * @param commandFactory builds the command to follow the trajectory, called on
+     *                       the main thread once the trajectory is ready
+     * @param requirements   the subsystems the built command will require
+     */
+    public AwaitTrajectoryCommand(CompletableFuture<T> trajectory, Function<T, Command> commandFactory, Subsystem... requirements) {
+        this.trajectory = trajectory;
+        this.commandFactory = commandFactory;
+
+        addRequirements(requirements);
+    }
+
+    @Override
+    public void initialize() {
+        command = null;
+        failed = false;
+    }
+
+    @Override
+    public void execute() {
+        if (command == null) {
+            if (!trajectory.isDone()) {
+                return;
+            }
+
+            try {
+                command = commandFactory.apply(trajectory.join());
+            } catch (CompletionException | CancellationException e) {
+                DriverStation.reportError("Trajectory generation failed: " + e.getMessage(), e.getStackTrace());
+                failed = true;
+                return;
+            }
+            command.initialize();
+        }
+
+        command.execute();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return failed || (command != null && command.isFinished());
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (command != null) {
+            command.end(interrupted);
+        }
+    }
+
+    /**
+     * @return true once the trajectory has been generated
+     */
+    public boolean isReady() {
+        return trajectory.isDone() && !trajectory.isCompletedExceptionally();
+    }
+}
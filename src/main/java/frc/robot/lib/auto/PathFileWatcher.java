@@ -0,0 +1,87 @@
+package frc.robot.lib.auto;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Watches the deploy pathplanner directory for changed .path files.
+ *
+ * Catches path files copied onto the robot by hand as well as ones pushed
+ * from PathPlanner. Runs on its own low priority daemon thread, which only
+ * wakes up when a file in the directory changes.
+ */
+public class PathFileWatcher {
+
+    private static final String EXTENSION = ".path";
+
+    private static boolean isRunning = false;
+
+    private PathFileWatcher() {}
+
+    /**
+     * Starts watching, does nothing if already started
+     *
+     * @param onPathChanged given the name of each changed path without the
+     *                      extension, called on the watcher thread
+     */
+    public static synchronized void start(Consumer<String> onPathChanged) {
+        if (isRunning) {
+            return;
+        }
+
+        Path directory = new File(Filesystem.getDeployDirectory(), "pathplanner").toPath();
+        try {
+            WatchService watcher = FileSystems.getDefault().newWatchService();
+            directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+
+            Thread thread = new Thread(() -> run(watcher, onPathChanged), "PathFileWatcher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+            isRunning = true;
+        } catch (IOException e) {
+            DriverStation.reportWarning("Unable to watch " + directory + " for path changes: " + e.getMessage(), false);
+        }
+    }
+
+    private static void run(WatchService watcher, Consumer<String> onPathChanged) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watcher.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    continue;
+                }
+
+                // Temporary files from atomic writes don't end in .path, so only the move is seen
+                String fileName = event.context().toString();
+                if (fileName.endsWith(EXTENSION)) {
+                    onPathChanged.accept(fileName.substring(0, fileName.length() - EXTENSION.length()));
+                }
+            }
+
+            if (!key.reset()) {
+                DriverStation.reportWarning("Stopped watching for path changes, the directory is gone", false);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package frc.robot.lib.auto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathConstraints;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlanner;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPoint;
+
+/**
+ * Generates trajectories off of the main robot thread.
+ *
+ * Generating a path can take far longer than one 20ms loop, so any path made
+ * after robot init should be generated here and followed with an
+ * {@link AwaitTrajectoryCommand} instead of being generated inline.
+ */
+public class TrajectoryGenerationService {
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    // One low priority daemon thread per core (two on the roboRIO) so independent
+    // paths generate in parallel, while the main loop still wins any contention
+    private static final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "TrajectoryGeneration-" + threadCount.getAndIncrement());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private TrajectoryGenerationService() {}
+
+    /**
+     * Run a generation task in the background
+     *
+     * @param task the task to run, must not touch anything owned by the main thread
+     * @return a future completed with the result of the task
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Generate a path from a list of points in the background
+     *
+     * @param constraints velocity and acceleration cap for the path
+     * @param point1 the starting point of the path
+     * @param point2 the second point in the path
+     * @param points more points in the path
+     * @return a future completed with the generated path
+     */
+    public static CompletableFuture<PathPlannerTrajectory> generatePath(PathConstraints constraints, PathPoint point1, PathPoint point2, PathPoint... points) {
+        return submit(() -> PathPlanner.generatePath(constraints, point1, point2, points));
+    }
+
+    /**
+     * Load a path group from a .path file in the background
+     *
+     * @param name name of the .path file from pathplanner
+     * @param constraint the constraint for the first path in the group
+     * @param constraints the constraints for the remaining paths in the group
+     * @return a future completed with the path group, or completed exceptionally if
+     *         the file could not be loaded
+     */
+    public static CompletableFuture<List<PathPlannerTrajectory>> loadPathGroup(String name, PathConstraints constraint, PathConstraints... constraints) {
+        return submit(() -> {
+            List<PathPlannerTrajectory> pathGroup = PathPlanner.loadPathGroup(name, constraint, constraints);
+            if (pathGroup == null) {
+                throw new IllegalStateException("Unable to load path group " + name);
+            }
+            return pathGroup;
+        });
+    }
+}
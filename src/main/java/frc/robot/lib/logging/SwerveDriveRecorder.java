@@ -0,0 +1,106 @@
+package frc.robot.lib.logging;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import frc.robot.lib.swervelib.SwerveModule;
+import frc.robot.lib.swervelib.SwerveSensorSnapshot;
+
+/**
+ * Records the state of a swerve drive to the WPILib DataLog every loop, for
+ * looking at after a match.
+ *
+ * Every entry is made up front and each value is appended as a primitive,
+ * all with the same timestamp, so recording a loop makes no garbage and
+ * doesn't use any NetworkTables bandwidth.
+ */
+public class SwerveDriveRecorder {
+
+    private final SwerveModule[] modules;
+
+    private final DoubleLogEntry[] commandedSpeed;
+    private final DoubleLogEntry[] measuredSpeed;
+    private final DoubleLogEntry[] commandedAngle;
+    private final DoubleLogEntry[] measuredAngle;
+    private final DoubleLogEntry[] driveCurrent;
+    private final DoubleLogEntry[] steerCurrent;
+    private final DoubleLogEntry[] driveVoltage;
+
+    private final DoubleLogEntry yaw;
+    private final DoubleLogEntry pitch;
+    private final DoubleLogEntry roll;
+    private final DoubleArrayLogEntry pose;
+
+    private final double[] poseBuffer = new double[3];
+
+    /**
+     * Creates a SwerveDriveRecorder
+     *
+     * @param log the log to record to, usually DataLogManager.getLog()
+     * @param prefix the name every entry starts with
+     * @param moduleNames the name of each module in the log
+     * @param modules the modules to record, in the same order as the names
+     */
+    public SwerveDriveRecorder(DataLog log, String prefix, String[] moduleNames, SwerveModule... modules) {
+        this.modules = modules;
+
+        int count = modules.length;
+        commandedSpeed = new DoubleLogEntry[count];
+        measuredSpeed = new DoubleLogEntry[count];
+        commandedAngle = new DoubleLogEntry[count];
+        measuredAngle = new DoubleLogEntry[count];
+        driveCurrent = new DoubleLogEntry[count];
+        steerCurrent = new DoubleLogEntry[count];
+        driveVoltage = new DoubleLogEntry[count];
+
+        for (int i = 0; i < count; i++) {
+            String module = prefix + "/" + moduleNames[i] + "/";
+            commandedSpeed[i] = new DoubleLogEntry(log, module + "commanded speed", "m/s");
+            measuredSpeed[i] = new DoubleLogEntry(log, module + "measured speed", "m/s");
+            commandedAngle[i] = new DoubleLogEntry(log, module + "commanded angle", "rad");
+            measuredAngle[i] = new DoubleLogEntry(log, module + "measured angle", "rad");
+            driveCurrent[i] = new DoubleLogEntry(log, module + "drive current", "A");
+            steerCurrent[i] = new DoubleLogEntry(log, module + "steer current", "A");
+            driveVoltage[i] = new DoubleLogEntry(log, module + "drive voltage", "V");
+        }
+
+        yaw = new DoubleLogEntry(log, prefix + "/gyro/yaw", "deg");
+        pitch = new DoubleLogEntry(log, prefix + "/gyro/pitch", "deg");
+        roll = new DoubleLogEntry(log, prefix + "/gyro/roll", "deg");
+        pose = new DoubleArrayLogEntry(log, prefix + "/odometry pose", "x m, y m, rad");
+    }
+
+    /**
+     * Records one loop of the drivetrain. Call this in your periodic.
+     *
+     * @param sensors the sensor readings for this loop, modules in the same order as this recorder
+     * @param odometryPose the pose from odometry
+     */
+    public void record(SwerveSensorSnapshot sensors, Pose2d odometryPose) {
+        long timestamp = WPIUtilJNI.now();
+
+        for (int i = 0; i < modules.length; i++) {
+            // Commands aren't sensors, so they come from the module
+            commandedSpeed[i].append(modules[i].getDriveReferenceSpeed(), timestamp);
+            commandedAngle[i].append(modules[i].getSteerReferenceAngle(), timestamp);
+
+            measuredSpeed[i].append(sensors.getDriveVelocity(i), timestamp);
+            measuredAngle[i].append(sensors.getSteerAngle(i), timestamp);
+            driveCurrent[i].append(sensors.getDriveCurrent(i), timestamp);
+            steerCurrent[i].append(sensors.getSteerCurrent(i), timestamp);
+            driveVoltage[i].append(sensors.getDriveVoltage(i), timestamp);
+        }
+
+        yaw.append(sensors.getYawDegrees(), timestamp);
+        pitch.append(sensors.getPitchDegrees(), timestamp);
+        roll.append(sensors.getRollDegrees(), timestamp);
+
+        // DataLog copies the array when it is appended
+        poseBuffer[0] = odometryPose.getX();
+        poseBuffer[1] = odometryPose.getY();
+        poseBuffer[2] = odometryPose.getRotation().getRadians();
+        pose.append(poseBuffer, timestamp);
+    }
+}
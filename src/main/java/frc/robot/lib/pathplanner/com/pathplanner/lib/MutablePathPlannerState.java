@@ -0,0 +1,70 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+
+/**
+ * A trajectory state made only of primitives, filled in by PathPlannerTrajectory.sample(double,
+ * MutablePathPlannerState).
+ *
+ * <p>The owner keeps one instance around and samples into it every loop, so following a path does
+ * not allocate. The state also remembers where the last sample landed in the trajectory; since
+ * time only moves forward while following a path, the next sample is usually found within a step
+ * or two of the last one instead of with a full binary search.
+ *
+ * <p>Rotations are in radians.
+ */
+public class MutablePathPlannerState {
+  public double timeSeconds;
+  public double velocityMetersPerSecond;
+  public double accelerationMetersPerSecondSq;
+  public double xMeters;
+  public double yMeters;
+  public double headingRadians;
+  public double curvatureRadPerMeter;
+  public double angularVelocityRadPerSec;
+  public double holonomicRotationRadians;
+  public double holonomicAngularVelocityRadPerSec;
+  public double curveRadius;
+
+  // Index of the state after the last sample and the buffer it belongs to
+  int cursor = 1;
+  TrajectoryStateBuffer cursorBuffer = null;
+
+  /** Forget the position of the last sample, the next sample will do a full search */
+  public void resetCursor() {
+    this.cursor = 1;
+    this.cursorBuffer = null;
+  }
+
+  /**
+   * Get the holonomic pose of this state. Allocates, so avoid calling this every loop.
+   *
+   * @return The position of the state with the holonomic rotation
+   */
+  public Pose2d getHolonomicPose() {
+    return new Pose2d(xMeters, yMeters, new Rotation2d(holonomicRotationRadians));
+  }
+
+  /**
+   * Copy this state into a new PathPlannerState. Allocates, so avoid calling this every loop.
+   *
+   * @return A PathPlannerState with the same values
+   */
+  public PathPlannerState toPathPlannerState() {
+    PathPlannerState state = new PathPlannerState();
+
+    state.timeSeconds = timeSeconds;
+    state.velocityMetersPerSecond = velocityMetersPerSecond;
+    state.accelerationMetersPerSecondSq = accelerationMetersPerSecondSq;
+    state.poseMeters = new Pose2d(xMeters, yMeters, new Rotation2d(headingRadians));
+    state.curvatureRadPerMeter = curvatureRadPerMeter;
+    state.angularVelocityRadPerSec = angularVelocityRadPerSec;
+    state.holonomicRotation = new Rotation2d(holonomicRotationRadians);
+    state.holonomicAngularVelocityRadPerSec = holonomicAngularVelocityRadPerSec;
+    state.curveRadius = curveRadius;
+
+    return state;
+  }
+}
@@ -0,0 +1,382 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.Waypoint;
+import frc.robot.lib.pathplanner.org.json.simple.parser.ContentHandler;
+import frc.robot.lib.pathplanner.org.json.simple.parser.JSONParser;
+import frc.robot.lib.pathplanner.org.json.simple.parser.ParseException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a .path file straight into waypoints, markers and constraints as the parser streams
+ * through it.
+ *
+ * <p>Values are copied into primitive fields as they arrive and each waypoint or marker is built
+ * when its object closes, so no JSONObject/JSONArray tree is built and nothing is looked up by key
+ * afterwards. Keys the decoder doesn't know are skipped.
+ */
+final class PathFileDecoder implements ContentHandler {
+  // Open containers: the root object, the waypoints or markers array, one waypoint or marker, a
+  // point or stop event inside a waypoint, and a names array inside a stop event
+  private static final int MAX_DEPTH = 5;
+
+  private final boolean constraintsOnly;
+
+  // The number of open objects and arrays, and the key of the entry open at each depth
+  private int depth = 0;
+  private final String[] keys = new String[MAX_DEPTH + 1];
+
+  private final List<Waypoint> waypoints = new ArrayList<>();
+  private final List<EventMarker> markers = new ArrayList<>();
+  private double maxVelocity = Double.NaN;
+  private double maxAcceleration = Double.NaN;
+
+  // The waypoint being decoded
+  private double anchorX;
+  private double anchorY;
+  private boolean hasAnchor;
+  private double prevX;
+  private double prevY;
+  private boolean hasPrev;
+  private double nextX;
+  private double nextY;
+  private boolean hasNext;
+  private double holonomicAngle;
+  private boolean hasHolonomicAngle;
+  private double velOverride;
+  private boolean isReversal;
+  private boolean isStopPoint;
+  private boolean hasStopEvent;
+  private List<String> stopEventNames;
+  private StopEvent.ExecutionBehavior executionBehavior;
+  private StopEvent.WaitBehavior waitBehavior;
+  private double waitTime;
+
+  // The marker being decoded
+  private double markerPosition;
+  private boolean hasMarkerPosition;
+  private List<String> markerNames;
+  private String markerName;
+
+  private PathFileDecoder(boolean constraintsOnly) {
+    this.constraintsOnly = constraintsOnly;
+  }
+
+  /**
+   * Decode the waypoints, markers and constraints of a path file
+   *
+   * @param fileContent Raw contents of the .path file
+   * @return The decoded file
+   * @throws ParseException If the file isn't valid JSON
+   */
+  static PathFileDecoder decode(byte[] fileContent) throws ParseException {
+    PathFileDecoder decoder = new PathFileDecoder(false);
+    new JSONParser().parse(new String(fileContent, StandardCharsets.UTF_8), decoder);
+    return decoder;
+  }
+
+  /**
+   * Decode only the constraints of a path file, stopping as soon as both have been read
+   *
+   * @param in Reader of the .path file
+   * @return The decoded file, without waypoints or markers
+   * @throws IOException If the file can't be read
+   * @throws ParseException If the file isn't valid JSON
+   */
+  static PathFileDecoder decodeConstraints(Reader in) throws IOException, ParseException {
+    PathFileDecoder decoder = new PathFileDecoder(true);
+    new JSONParser().parse(in, decoder);
+    return decoder;
+  }
+
+  /**
+   * Get the decoded waypoints
+   *
+   * @return The waypoints, in order
+   */
+  List<Waypoint> getWaypoints() {
+    return waypoints;
+  }
+
+  /**
+   * Get the decoded event markers
+   *
+   * @return The markers, in order
+   */
+  List<EventMarker> getMarkers() {
+    return markers;
+  }
+
+  /**
+   * Get the constraints set in the GUI
+   *
+   * @return The constraints, or null if the file doesn't have both of them
+   */
+  PathConstraints getConstraints() {
+    if (Double.isNaN(maxVelocity) || Double.isNaN(maxAcceleration)) {
+      return null;
+    }
+    return new PathConstraints(maxVelocity, maxAcceleration);
+  }
+
+  @Override
+  public void startJSON() {}
+
+  @Override
+  public void endJSON() {}
+
+  @Override
+  public boolean startObject() {
+    open();
+
+    if (depth == 3 && "waypoints".equals(keys[1])) {
+      startWaypoint();
+    } else if (depth == 3 && "markers".equals(keys[1])) {
+      startMarker();
+    } else if (depth == 4 && isInWaypoint()) {
+      // An object value marks the point or stop event as present, a null value never opens one
+      String key = keys[3];
+      if ("anchorPoint".equals(key)) {
+        hasAnchor = true;
+      } else if ("prevControl".equals(key)) {
+        hasPrev = true;
+      } else if ("nextControl".equals(key)) {
+        hasNext = true;
+      } else if ("stopEvent".equals(key)) {
+        hasStopEvent = true;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean endObject() {
+    if (depth == 3 && "waypoints".equals(keys[1])) {
+      endWaypoint();
+    } else if (depth == 3 && "markers".equals(keys[1])) {
+      endMarker();
+    }
+
+    close();
+    return true;
+  }
+
+  @Override
+  public boolean startObjectEntry(String key) {
+    if (depth <= MAX_DEPTH) {
+      keys[depth] = key;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean endObjectEntry() {
+    if (depth <= MAX_DEPTH) {
+      keys[depth] = null;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean startArray() {
+    open();
+
+    if (depth == 4 && "markers".equals(keys[1]) && "names".equals(keys[3])) {
+      markerNames = new ArrayList<>();
+    }
+    return true;
+  }
+
+  @Override
+  public boolean endArray() {
+    close();
+    return true;
+  }
+
+  @Override
+  public boolean primitive(Object value) {
+    if (depth == 1) {
+      if ("maxVelocity".equals(keys[1]) && value instanceof Number) {
+        maxVelocity = ((Number) value).doubleValue();
+      } else if ("maxAcceleration".equals(keys[1]) && value instanceof Number) {
+        maxAcceleration = ((Number) value).doubleValue();
+      }
+
+      // Nothing else is needed once both constraints are known
+      return !constraintsOnly || getConstraints() == null;
+    }
+
+    if (isInWaypoint()) {
+      waypointValue(value);
+    } else if (depth >= 3 && "markers".equals(keys[1])) {
+      markerValue(value);
+    }
+    return true;
+  }
+
+  private void open() {
+    depth++;
+    if (depth <= MAX_DEPTH) {
+      keys[depth] = null;
+    }
+  }
+
+  private void close() {
+    if (depth <= MAX_DEPTH) {
+      keys[depth] = null;
+    }
+    depth--;
+  }
+
+  private boolean isInWaypoint() {
+    return depth >= 3 && "waypoints".equals(keys[1]);
+  }
+
+  private void startWaypoint() {
+    hasAnchor = false;
+    hasPrev = false;
+    hasNext = false;
+    hasHolonomicAngle = false;
+    velOverride = -1;
+    isReversal = false;
+    isStopPoint = false;
+    hasStopEvent = false;
+    stopEventNames = new ArrayList<>();
+    executionBehavior = StopEvent.ExecutionBehavior.PARALLEL;
+    waitBehavior = StopEvent.WaitBehavior.NONE;
+    waitTime = 0;
+  }
+
+  private void waypointValue(Object value) {
+    if (depth == 3) {
+      String key = keys[3];
+      if ("holonomicAngle".equals(key) && value instanceof Number) {
+        holonomicAngle = ((Number) value).doubleValue();
+        hasHolonomicAngle = true;
+      } else if ("velOverride".equals(key) && value instanceof Number) {
+        velOverride = ((Number) value).doubleValue();
+      } else if ("isReversal".equals(key) && value instanceof Boolean) {
+        isReversal = (Boolean) value;
+      } else if ("isStopPoint".equals(key) && value instanceof Boolean) {
+        isStopPoint = (Boolean) value;
+      }
+    } else if (depth == 4 && value != null) {
+      String object = keys[3];
+      String key = keys[4];
+      if ("stopEvent".equals(object)) {
+        stopEventValue(key, value);
+      } else if (value instanceof Number) {
+        pointValue(object, key, ((Number) value).doubleValue());
+      }
+    } else if (depth == 5 && "stopEvent".equals(keys[3]) && "names".equals(keys[4])) {
+      if (value != null) {
+        stopEventNames.add(value.toString());
+      }
+    }
+  }
+
+  private void pointValue(String point, String axis, double value) {
+    boolean isX = "x".equals(axis);
+    if (!isX && !"y".equals(axis)) {
+      return;
+    }
+
+    if ("anchorPoint".equals(point)) {
+      if (isX) anchorX = value;
+      else anchorY = value;
+    } else if ("prevControl".equals(point)) {
+      if (isX) prevX = value;
+      else prevY = value;
+    } else if ("nextControl".equals(point)) {
+      if (isX) nextX = value;
+      else nextY = value;
+    }
+  }
+
+  private void stopEventValue(String key, Object value) {
+    if ("executionBehavior".equals(key)) {
+      StopEvent.ExecutionBehavior behavior =
+          StopEvent.ExecutionBehavior.fromValue(value.toString());
+      if (behavior != null) {
+        executionBehavior = behavior;
+      }
+    } else if ("waitBehavior".equals(key)) {
+      StopEvent.WaitBehavior behavior = StopEvent.WaitBehavior.fromValue(value.toString());
+      if (behavior != null) {
+        waitBehavior = behavior;
+      }
+    } else if ("waitTime".equals(key) && value instanceof Number) {
+      waitTime = ((Number) value).doubleValue();
+    }
+  }
+
+  private void endWaypoint() {
+    if (constraintsOnly) {
+      return;
+    }
+
+    if (!hasAnchor) {
+      throw new IllegalArgumentException("Waypoint " + waypoints.size() + " has no anchorPoint");
+    }
+
+    StopEvent stopEvent =
+        hasStopEvent
+            ? new StopEvent(stopEventNames, executionBehavior, waitBehavior, waitTime)
+            : new StopEvent();
+
+    waypoints.add(
+        new Waypoint(
+            new Translation2d(anchorX, anchorY),
+            hasPrev ? new Translation2d(prevX, prevY) : null,
+            hasNext ? new Translation2d(nextX, nextY) : null,
+            velOverride,
+            hasHolonomicAngle ? Rotation2d.fromDegrees(holonomicAngle) : null,
+            isReversal,
+            isStopPoint,
+            stopEvent));
+  }
+
+  private void startMarker() {
+    hasMarkerPosition = false;
+    markerNames = null;
+    markerName = null;
+  }
+
+  private void markerValue(Object value) {
+    if (depth == 3) {
+      if ("position".equals(keys[3]) && value instanceof Number) {
+        markerPosition = ((Number) value).doubleValue();
+        hasMarkerPosition = true;
+      } else if ("name".equals(keys[3]) && value instanceof String) {
+        markerName = (String) value;
+      }
+    } else if (depth == 4 && "names".equals(keys[3]) && value instanceof String) {
+      markerNames.add((String) value);
+    }
+  }
+
+  private void endMarker() {
+    if (constraintsOnly) {
+      return;
+    }
+
+    if (!hasMarkerPosition) {
+      throw new IllegalArgumentException("Marker " + markers.size() + " has no position");
+    }
+
+    List<String> names = markerNames;
+    if (names == null) {
+      // Handle transition between one-event markers and multi-event markers. Remove next season
+      names = new ArrayList<>();
+      names.add(markerName);
+    }
+    markers.add(new EventMarker(names, markerPosition));
+  }
+}
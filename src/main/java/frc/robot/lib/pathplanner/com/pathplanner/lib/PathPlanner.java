@@ -2,19 +2,58 @@ package frc.robot.lib.pathplanner.com.pathplanner.lib;
 
 import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.Waypoint;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.Filesystem;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import frc.robot.lib.pathplanner.org.json.simple.JSONArray;
-import frc.robot.lib.pathplanner.org.json.simple.JSONObject;
-import frc.robot.lib.pathplanner.org.json.simple.parser.JSONParser;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PathPlanner {
-  protected static double resolution = 0.004;
+  private static volatile PathResolution defaultResolution = PathResolution.DEFAULT;
+  private static final Map<String, PathResolution> pathResolutions = new ConcurrentHashMap<>();
+
+  /**
+   * Set the resolution used for paths that don't have their own
+   *
+   * @param resolution How finely splines are sampled into states
+   */
+  public static void setDefaultResolution(PathResolution resolution) {
+    defaultResolution = resolution;
+  }
+
+  /**
+   * Get the resolution used for paths that don't have their own
+   *
+   * @return The default resolution
+   */
+  public static PathResolution getDefaultResolution() {
+    return defaultResolution;
+  }
+
+  /**
+   * Set the resolution used when loading a path file. Must be set before the path is loaded.
+   *
+   * @param name The name of the path
+   * @param resolution How finely splines are sampled into states
+   */
+  public static void setResolution(String name, PathResolution resolution) {
+    pathResolutions.put(name, resolution);
+  }
+
+  /**
+   * Get the resolution used when loading a path file
+   *
+   * @param name The name of the path
+   * @return The resolution set for the path, or the default resolution
+   */
+  public static PathResolution getResolution(String name) {
+    return pathResolutions.getOrDefault(name, defaultResolution);
+  }
 
   /**
    * Load a path file from storage
@@ -26,23 +65,28 @@ public class PathPlanner {
    */
   public static PathPlannerTrajectory loadPath(
       String name, PathConstraints constraints, boolean reversed) {
-    try (BufferedReader br =
-        new BufferedReader(
-            new FileReader(
-                new File(Filesystem.getDeployDirectory(), "pathplanner/" + name + ".path")))) {
-      StringBuilder fileContentBuilder = new StringBuilder();
-      String line;
-      while ((line = br.readLine()) != null) {
-        fileContentBuilder.append(line);
+    try {
+      byte[] fileContent = readPathFile(name);
+
+      PathResolution resolution = getResolution(name);
+      byte[] cacheKey =
+          TrajectoryCache.key(fileContent, "path", reversed, List.of(constraints), resolution);
+      String cacheFile = TrajectoryCache.fileName(name, "path", cacheKey);
+      List<PathPlannerTrajectory> cached = TrajectoryCache.load(cacheFile, cacheKey);
+      if (cached != null && cached.size() == 1) {
+        return cached.get(0);
       }
 
-      String fileContent = fileContentBuilder.toString();
-      JSONObject json = (JSONObject) new JSONParser().parse(fileContent);
+      PathFileDecoder decoded = PathFileDecoder.decode(fileContent);
+
+      List<Waypoint> waypoints = decoded.getWaypoints();
+      List<EventMarker> markers = decoded.getMarkers();
 
-      List<Waypoint> waypoints = getWaypointsFromJson(json);
-      List<EventMarker> markers = getMarkersFromJson(json);
+      PathPlannerTrajectory trajectory =
+          new PathPlannerTrajectory(waypoints, markers, constraints, reversed, true, resolution);
+      TrajectoryCache.save(cacheFile, cacheKey, List.of(trajectory));
 
-      return new PathPlannerTrajectory(waypoints, markers, constraints, reversed, true);
+      return trajectory;
     } catch (Exception e) {
       e.printStackTrace();
       return null;
@@ -105,21 +149,23 @@ public class PathPlanner {
     allConstraints.add(constraint);
     allConstraints.addAll(Arrays.asList(constraints));
 
-    try (BufferedReader br =
-        new BufferedReader(
-            new FileReader(
-                new File(Filesystem.getDeployDirectory(), "pathplanner/" + name + ".path")))) {
-      StringBuilder fileContentBuilder = new StringBuilder();
-      String line;
-      while ((line = br.readLine()) != null) {
-        fileContentBuilder.append(line);
+    try {
+      byte[] fileContent = readPathFile(name);
+
+      // Generating the group is expensive, reuse the last result if nothing has changed
+      PathResolution resolution = getResolution(name);
+      byte[] cacheKey =
+          TrajectoryCache.key(fileContent, "group", reversed, allConstraints, resolution);
+      String cacheFile = TrajectoryCache.fileName(name, "group", cacheKey);
+      List<PathPlannerTrajectory> cached = TrajectoryCache.load(cacheFile, cacheKey);
+      if (cached != null) {
+        return cached;
       }
 
-      String fileContent = fileContentBuilder.toString();
-      JSONObject json = (JSONObject) new JSONParser().parse(fileContent);
+      PathFileDecoder decoded = PathFileDecoder.decode(fileContent);
 
-      List<Waypoint> waypoints = getWaypointsFromJson(json);
-      List<EventMarker> markers = getMarkersFromJson(json);
+      List<Waypoint> waypoints = decoded.getWaypoints();
+      List<EventMarker> markers = decoded.getMarkers();
 
       List<List<Waypoint>> splitWaypoints = new ArrayList<>();
       List<List<EventMarker>> splitMarkers = new ArrayList<>();
@@ -170,7 +216,8 @@ public class PathPlanner {
                 splitMarkers.get(i),
                 currentConstraints,
                 shouldReverse,
-                true));
+                true,
+                resolution));
 
         // Loop through waypoints and invert shouldReverse for every reversal point.
         // This makes sure that other paths in the group are properly reversed.
@@ -181,6 +228,8 @@ public class PathPlanner {
         }
       }
 
+      TrajectoryCache.save(cacheFile, cacheKey, pathGroup);
+
       return pathGroup;
     } catch (Exception e) {
       e.printStackTrace();
@@ -464,22 +513,13 @@ public class PathPlanner {
    */
   public static PathConstraints getConstraintsFromPath(String name) {
     try (BufferedReader br =
-        new BufferedReader(
-            new FileReader(
-                new File(Filesystem.getDeployDirectory(), "pathplanner/" + name + ".path")))) {
-      StringBuilder fileContentBuilder = new StringBuilder();
-      String line;
-      while ((line = br.readLine()) != null) {
-        fileContentBuilder.append(line);
-      }
-
-      String fileContent = fileContentBuilder.toString();
-      JSONObject json = (JSONObject) new JSONParser().parse(fileContent);
+        Files.newBufferedReader(
+            new File(Filesystem.getDeployDirectory(), "pathplanner/" + name + ".path").toPath(),
+            StandardCharsets.UTF_8)) {
+      PathConstraints constraints = PathFileDecoder.decodeConstraints(br).getConstraints();
 
-      if (json.containsKey("maxVelocity") && json.containsKey("maxAcceleration")) {
-        double maxV = ((Number) json.get("maxVelocity")).doubleValue();
-        double maxA = ((Number) json.get("maxAcceleration")).doubleValue();
-        return new PathConstraints(maxV, maxA);
+      if (constraints != null) {
+        return constraints;
       } else {
         throw new RuntimeException(
             "Path constraints not present in path file. Make sure you explicitly set them in the GUI.");
@@ -490,132 +530,8 @@ public class PathPlanner {
     }
   }
 
-  private static List<Waypoint> getWaypointsFromJson(JSONObject json) {
-    JSONArray jsonWaypoints = (JSONArray) json.get("waypoints");
-
-    List<Waypoint> waypoints = new ArrayList<>();
-
-    for (Object waypoint : jsonWaypoints) {
-      JSONObject jsonWaypoint = (JSONObject) waypoint;
-
-      JSONObject jsonAnchor = (JSONObject) jsonWaypoint.get("anchorPoint");
-      Translation2d anchorPoint =
-          new Translation2d(
-              ((Number) jsonAnchor.get("x")).doubleValue(),
-              ((Number) jsonAnchor.get("y")).doubleValue());
-
-      JSONObject jsonPrevControl = (JSONObject) jsonWaypoint.get("prevControl");
-      Translation2d prevControl = null;
-      if (jsonPrevControl != null) {
-        prevControl =
-            new Translation2d(
-                ((Number) jsonPrevControl.get("x")).doubleValue(),
-                ((Number) jsonPrevControl.get("y")).doubleValue());
-      }
-
-      JSONObject jsonNextControl = (JSONObject) jsonWaypoint.get("nextControl");
-      Translation2d nextControl = null;
-      if (jsonNextControl != null) {
-        nextControl =
-            new Translation2d(
-                ((Number) jsonNextControl.get("x")).doubleValue(),
-                ((Number) jsonNextControl.get("y")).doubleValue());
-      }
-
-      Rotation2d holonomicAngle = null;
-      if (jsonWaypoint.get("holonomicAngle") != null) {
-        holonomicAngle =
-            Rotation2d.fromDegrees(((Number) jsonWaypoint.get("holonomicAngle")).doubleValue());
-      }
-      boolean isReversal = (boolean) jsonWaypoint.get("isReversal");
-      Object isStopPointObj = jsonWaypoint.get("isStopPoint");
-      boolean isStopPoint = false;
-      if (isStopPointObj != null) isStopPoint = (boolean) isStopPointObj;
-      double velOverride = -1;
-      if (jsonWaypoint.get("velOverride") != null) {
-        velOverride = ((Number) jsonWaypoint.get("velOverride")).doubleValue();
-      }
-
-      PathPlannerTrajectory.StopEvent stopEvent = new PathPlannerTrajectory.StopEvent();
-      if (jsonWaypoint.get("stopEvent") != null) {
-        List<String> names = new ArrayList<>();
-        PathPlannerTrajectory.StopEvent.ExecutionBehavior executionBehavior =
-            PathPlannerTrajectory.StopEvent.ExecutionBehavior.PARALLEL;
-        PathPlannerTrajectory.StopEvent.WaitBehavior waitBehavior =
-            PathPlannerTrajectory.StopEvent.WaitBehavior.NONE;
-        double waitTime = 0;
-
-        JSONObject stopEventJson = (JSONObject) jsonWaypoint.get("stopEvent");
-        if (stopEventJson.get("names") != null) {
-          JSONArray namesArray = (JSONArray) stopEventJson.get("names");
-          for (Object name : namesArray) {
-            names.add(name.toString());
-          }
-        }
-        if (stopEventJson.get("executionBehavior") != null) {
-          PathPlannerTrajectory.StopEvent.ExecutionBehavior behavior =
-              PathPlannerTrajectory.StopEvent.ExecutionBehavior.fromValue(
-                  stopEventJson.get("executionBehavior").toString());
-
-          if (behavior != null) {
-            executionBehavior = behavior;
-          }
-        }
-        if (stopEventJson.get("waitBehavior") != null) {
-          PathPlannerTrajectory.StopEvent.WaitBehavior behavior =
-              PathPlannerTrajectory.StopEvent.WaitBehavior.fromValue(
-                  stopEventJson.get("waitBehavior").toString());
-
-          if (behavior != null) {
-            waitBehavior = behavior;
-          }
-        }
-        if (stopEventJson.get("waitTime") != null) {
-          waitTime = ((Number) stopEventJson.get("waitTime")).doubleValue();
-        }
-
-        stopEvent =
-            new PathPlannerTrajectory.StopEvent(names, executionBehavior, waitBehavior, waitTime);
-      }
-
-      waypoints.add(
-          new Waypoint(
-              anchorPoint,
-              prevControl,
-              nextControl,
-              velOverride,
-              holonomicAngle,
-              isReversal,
-              isStopPoint,
-              stopEvent));
-    }
-
-    return waypoints;
-  }
-
-  private static List<EventMarker> getMarkersFromJson(JSONObject json) {
-    JSONArray jsonMarkers = (JSONArray) json.get("markers");
-
-    List<EventMarker> markers = new ArrayList<>();
-
-    if (jsonMarkers != null) {
-      for (Object marker : jsonMarkers) {
-        JSONObject jsonMarker = (JSONObject) marker;
-
-        JSONArray eventNames = (JSONArray) jsonMarker.get("names");
-        List<String> names = new ArrayList<>();
-        if (eventNames != null) {
-          for (Object eventName : eventNames) {
-            names.add((String) eventName);
-          }
-        } else {
-          // Handle transition between one-event markers and multi-event markers. Remove next season
-          names.add((String) jsonMarker.get("name"));
-        }
-        markers.add(new EventMarker(names, ((Number) jsonMarker.get("position")).doubleValue()));
-      }
-    }
-
-    return markers;
+  private static byte[] readPathFile(String name) throws IOException {
+    return Files.readAllBytes(
+        new File(Filesystem.getDeployDirectory(), "pathplanner/" + name + ".path").toPath());
   }
-}
\ No newline at end of file
+}
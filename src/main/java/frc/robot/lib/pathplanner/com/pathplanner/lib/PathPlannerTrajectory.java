@@ -7,12 +7,15 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.DriverStation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
 public class PathPlannerTrajectory extends Trajectory {
   private static final double FIELD_WIDTH_METERS = 8.02;
+  private static final int ADAPTIVE_SEED_STEPS = 8;
 
+  private final TrajectoryStateBuffer stateBuffer;
   private final List<EventMarker> markers;
   private final StopEvent startStopEvent;
   private final StopEvent endStopEvent;
@@ -20,6 +23,7 @@ public class PathPlannerTrajectory extends Trajectory {
 
   public PathPlannerTrajectory() {
     super();
+    this.stateBuffer = new TrajectoryStateBuffer(0);
     this.markers = new ArrayList<>();
     this.startStopEvent = new StopEvent();
     this.endStopEvent = new StopEvent();
@@ -32,13 +36,22 @@ public class PathPlannerTrajectory extends Trajectory {
       PathConstraints constraints,
       boolean reversed,
       boolean fromGUI) {
-    super(generatePath(pathPoints, constraints.maxVelocity, constraints.maxAcceleration, reversed));
+    this(pathPoints, markers, constraints, reversed, fromGUI, PathPlanner.getDefaultResolution());
+  }
 
-    this.markers = markers;
-    this.calculateMarkerTimes(pathPoints);
-    this.startStopEvent = pathPoints.get(0).stopEvent;
-    this.endStopEvent = pathPoints.get(pathPoints.size() - 1).stopEvent;
-    this.fromGUI = fromGUI;
+  public PathPlannerTrajectory(
+      List<Waypoint> pathPoints,
+      List<EventMarker> markers,
+      PathConstraints constraints,
+      boolean reversed,
+      boolean fromGUI,
+      PathResolution resolution) {
+    this(
+        generateStateBuffer(pathPoints, markers, constraints, reversed, resolution),
+        markers,
+        pathPoints.get(0).stopEvent,
+        pathPoints.get(pathPoints.size() - 1).stopEvent,
+        fromGUI);
   }
 
   public PathPlannerTrajectory(
@@ -47,8 +60,19 @@ public class PathPlannerTrajectory extends Trajectory {
       StopEvent startStopEvent,
       StopEvent endStopEvent,
       boolean fromGUI) {
-    super(states);
+    this(TrajectoryStateBuffer.fromStates(states), markers, startStopEvent, endStopEvent, fromGUI);
+  }
 
+  PathPlannerTrajectory(
+      TrajectoryStateBuffer stateBuffer,
+      List<EventMarker> markers,
+      StopEvent startStopEvent,
+      StopEvent endStopEvent,
+      boolean fromGUI) {
+    // WPILib only sees a view of the buffer, states are built as they are requested
+    super(stateBuffer.asStateList());
+
+    this.stateBuffer = stateBuffer;
     this.markers = markers;
     this.startStopEvent = startStopEvent;
     this.endStopEvent = endStopEvent;
@@ -82,6 +106,15 @@ public class PathPlannerTrajectory extends Trajectory {
     return this.markers;
   }
 
+  /**
+   * Get the primitive array storage backing this path
+   *
+   * @return The state buffer
+   */
+  TrajectoryStateBuffer getStateBuffer() {
+    return this.stateBuffer;
+  }
+
   /**
    * Sample the path at a point in time
    *
@@ -90,28 +123,19 @@ public class PathPlannerTrajectory extends Trajectory {
    */
   @Override
   public State sample(double time) {
-    if (time <= getInitialState().timeSeconds) return getInitialState();
-    if (time >= getTotalTimeSeconds()) return getEndState();
-
-    int low = 1;
-    int high = getStates().size() - 1;
-
-    while (low != high) {
-      int mid = (low + high) / 2;
-      if (getState(mid).timeSeconds < time) {
-        low = mid + 1;
-      } else {
-        high = mid;
-      }
-    }
-
-    PathPlannerState sample = getState(low);
-    PathPlannerState prevSample = getState(low - 1);
-
-    if (Math.abs(sample.timeSeconds - prevSample.timeSeconds) < 1E-3) return sample;
+    return stateBuffer.sample(time);
+  }
 
-    return prevSample.interpolate(
-        sample, (time - prevSample.timeSeconds) / (sample.timeSeconds - prevSample.timeSeconds));
+  /**
+   * Sample the path at a point in time without allocating. The result is written into the given
+   * state, which also remembers where in the path it was last sampled so that sampling with
+   * increasing times is cheap. Use this from control loops.
+   *
+   * @param time The time to sample
+   * @param out The state to write the sample into
+   */
+  public void sample(double time, MutablePathPlannerState out) {
+    stateBuffer.sample(time, out);
   }
 
   public static PathPlannerState transformStateForAlliance(
@@ -145,16 +169,8 @@ public class PathPlannerTrajectory extends Trajectory {
   public static PathPlannerTrajectory transformTrajectoryForAlliance(
       PathPlannerTrajectory trajectory, DriverStation.Alliance alliance) {
     if (alliance == DriverStation.Alliance.Red) {
-      List<State> transformedStates = new ArrayList<>();
-
-      for (State s : trajectory.getStates()) {
-        PathPlannerState state = (PathPlannerState) s;
-
-        transformedStates.add(transformStateForAlliance(state, alliance));
-      }
-
       return new PathPlannerTrajectory(
-          transformedStates,
+          trajectory.stateBuffer.mirrored(FIELD_WIDTH_METERS),
           trajectory.markers,
           trajectory.startStopEvent,
           trajectory.endStopEvent,
@@ -170,7 +186,7 @@ public class PathPlannerTrajectory extends Trajectory {
    * @return The first state in the path
    */
   public PathPlannerState getInitialState() {
-    return (PathPlannerState) getStates().get(0);
+    return stateBuffer.getState(0);
   }
 
   /**
@@ -179,7 +195,10 @@ public class PathPlannerTrajectory extends Trajectory {
    * @return The initial pose
    */
   public Pose2d getInitialHolonomicPose() {
-    return new Pose2d(getInitialPose().getTranslation(), getInitialState().holonomicRotation);
+    return new Pose2d(
+        stateBuffer.xMeters[0],
+        stateBuffer.yMeters[0],
+        new Rotation2d(stateBuffer.holonomicRotationRadians[0]));
   }
 
   /**
@@ -188,7 +207,7 @@ public class PathPlannerTrajectory extends Trajectory {
    * @return The last state in the path
    */
   public PathPlannerState getEndState() {
-    return (PathPlannerState) getStates().get(getStates().size() - 1);
+    return stateBuffer.getState(stateBuffer.size() - 1);
   }
 
   /**
@@ -198,11 +217,32 @@ public class PathPlannerTrajectory extends Trajectory {
    * @return The state at the given index
    */
   public PathPlannerState getState(int i) {
-    return (PathPlannerState) getStates().get(i);
+    return stateBuffer.getState(i);
   }
 
-  private static List<State> generatePath(
-      List<Waypoint> pathPoints, double maxVel, double maxAccel, boolean reversed) {
+  private static TrajectoryStateBuffer generateStateBuffer(
+      List<Waypoint> pathPoints,
+      List<EventMarker> markers,
+      PathConstraints constraints,
+      boolean reversed,
+      PathResolution resolution) {
+    List<PathPlannerState> states =
+        generatePath(
+            pathPoints, constraints.maxVelocity, constraints.maxAcceleration, reversed, resolution);
+
+    // Marker times need the waypoint relative position of each state, which only lives on the
+    // state objects while the path is being generated
+    calculateMarkerTimes(states, pathPoints, markers);
+
+    return TrajectoryStateBuffer.fromStates(states);
+  }
+
+  static List<PathPlannerState> generatePath(
+      List<Waypoint> pathPoints,
+      double maxVel,
+      double maxAccel,
+      boolean reversed,
+      PathResolution resolution) {
     List<List<Waypoint>> splitPaths = new ArrayList<>();
     List<Waypoint> currentPath = new ArrayList<>();
 
@@ -220,8 +260,10 @@ public class PathPlannerTrajectory extends Trajectory {
 
     List<List<PathPlannerState>> splitStates = new ArrayList<>();
     boolean shouldReverse = reversed;
+    int waypointOffset = 0;
     for (List<Waypoint> splitPath : splitPaths) {
-      List<PathPlannerState> joined = joinSplines(splitPath, maxVel, PathPlanner.resolution);
+      List<PathPlannerState> joined = joinSplines(splitPath, maxVel, resolution, waypointOffset);
+      waypointOffset += splitPath.size() - 1;
       calculateMaxVel(joined, maxVel, maxAccel, shouldReverse);
       calculateVelocity(joined, splitPath, maxAccel);
       recalculateValues(joined, shouldReverse);
@@ -229,13 +271,13 @@ public class PathPlannerTrajectory extends Trajectory {
       shouldReverse = !shouldReverse;
     }
 
-    List<Trajectory.State> joinedStates = new ArrayList<>();
+    List<PathPlannerState> joinedStates = new ArrayList<>();
 
     for (int i = 0; i < splitStates.size(); i++) {
       if (i != 0) {
         double lastEndTime = joinedStates.get(joinedStates.size() - 1).timeSeconds;
 
-        for (Trajectory.State s : splitStates.get(i)) {
+        for (PathPlannerState s : splitStates.get(i)) {
           s.timeSeconds += lastEndTime;
         }
       }
@@ -246,7 +288,7 @@ public class PathPlannerTrajectory extends Trajectory {
     return joinedStates;
   }
 
-  private static void calculateMaxVel(
+  static void calculateMaxVel(
       List<PathPlannerState> states, double maxVel, double maxAccel, boolean reversed) {
     for (int i = 0; i < states.size(); i++) {
       double radius;
@@ -276,7 +318,7 @@ public class PathPlannerTrajectory extends Trajectory {
     }
   }
 
-  private static void calculateVelocity(
+  static void calculateVelocity(
       List<PathPlannerState> states, List<Waypoint> pathPoints, double maxAccel) {
     if (pathPoints.get(0).velOverride == -1) {
       states.get(0).velocityMetersPerSecond = 0;
@@ -326,7 +368,7 @@ public class PathPlannerTrajectory extends Trajectory {
     }
   }
 
-  private static void recalculateValues(List<PathPlannerState> states, boolean reversed) {
+  static void recalculateValues(List<PathPlannerState> states, boolean reversed) {
     for (int i = states.size() - 1; i >= 0; i--) {
       PathPlannerState now = states.get(i);
 
@@ -369,8 +411,8 @@ public class PathPlannerTrajectory extends Trajectory {
     }
   }
 
-  private static List<PathPlannerState> joinSplines(
-      List<Waypoint> pathPoints, double maxVel, double step) {
+  static List<PathPlannerState> joinSplines(
+      List<Waypoint> pathPoints, double maxVel, PathResolution resolution, int waypointOffset) {
     List<PathPlannerState> states = new ArrayList<>();
     int numSplines = pathPoints.size() - 1;
 
@@ -378,8 +420,13 @@ public class PathPlannerTrajectory extends Trajectory {
       Waypoint startPoint = pathPoints.get(i);
       Waypoint endPoint = pathPoints.get(i + 1);
 
-      double endStep = (i == numSplines - 1) ? 1.0 : 1.0 - step;
-      for (double t = 0; t <= endStep; t += step) {
+      boolean isLastSpline = i == numSplines - 1;
+      double[] steps =
+          resolution.adaptive
+              ? adaptiveSplineSteps(pathPoints, i, resolution, isLastSpline)
+              : fixedSplineSteps(resolution.step, isLastSpline);
+
+      for (double t : steps) {
         Translation2d p =
             GeometryUtil.cubicLerp(
                 startPoint.anchorPoint,
@@ -390,39 +437,8 @@ public class PathPlannerTrajectory extends Trajectory {
 
         PathPlannerState state = new PathPlannerState();
         state.poseMeters = new Pose2d(p, state.poseMeters.getRotation());
-
-        Rotation2d startRot = startPoint.holonomicRotation;
-        Rotation2d endRot = endPoint.holonomicRotation;
-
-        int startSeachOffset = 0;
-        int endSearchOffset = 0;
-
-        while (startRot == null || endRot == null) {
-          if (startRot == null) {
-            startSeachOffset++;
-            startRot = pathPoints.get(i - startSeachOffset).holonomicRotation;
-          }
-          if (endRot == null) {
-            endSearchOffset++;
-            endRot = pathPoints.get(i + 1 + endSearchOffset).holonomicRotation;
-          }
-        }
-
-        double deltaRot = endRot.minus(startRot).getDegrees();
-        deltaRot = MathUtil.inputModulus(deltaRot, -180, 180);
-
-        int startRotIndex = i - startSeachOffset;
-        int endRotIndex = i + 1 + endSearchOffset;
-        int rotRange = endRotIndex - startRotIndex;
-
-        double holonomicRot =
-            GeometryUtil.cosineInterpolate(
-                    startRot,
-                    Rotation2d.fromDegrees(startRot.getDegrees() + deltaRot),
-                    ((i + t) - startRotIndex) / rotRange)
-                .getDegrees();
-        holonomicRot = MathUtil.inputModulus(holonomicRot, -180, 180);
-        state.holonomicRotation = Rotation2d.fromDegrees(holonomicRot);
+        state.holonomicRotation = Rotation2d.fromDegrees(holonomicRotationAt(pathPoints, i, t));
+        state.waypointRelativePos = waypointOffset + i + t;
 
         if (i > 0 || t > 0) {
           PathPlannerState s1 = states.get(states.size() - 1);
@@ -440,11 +456,11 @@ public class PathPlannerTrajectory extends Trajectory {
           state.poseMeters =
               new Pose2d(state.poseMeters.getTranslation(), Rotation2d.fromDegrees(heading));
 
-          if (i == 0 && t == step) {
-            states.get(states.size() - 1).poseMeters =
+          // The first state has no previous state to get a heading from, use the second's
+          if (states.size() == 1) {
+            states.get(0).poseMeters =
                 new Pose2d(
-                    states.get(states.size() - 1).poseMeters.getTranslation(),
-                    Rotation2d.fromDegrees(heading));
+                    states.get(0).poseMeters.getTranslation(), Rotation2d.fromDegrees(heading));
           }
         }
 
@@ -464,6 +480,165 @@ public class PathPlannerTrajectory extends Trajectory {
     return states;
   }
 
+  /** Evenly spaced steps along a spline, the end is left to the next spline unless it's the last */
+  private static double[] fixedSplineSteps(double step, boolean includeEnd) {
+    double endStep = includeEnd ? 1.0 : 1.0 - step;
+
+    double[] steps = new double[(int) Math.ceil(1.0 / step) + 2];
+    int count = 0;
+    for (double t = 0; t <= endStep; t += step) {
+      steps[count++] = t;
+    }
+    return Arrays.copyOf(steps, count);
+  }
+
+  /**
+   * Steps along a spline that keep every pair of neighboring states within the tolerances of the
+   * resolution. The end is left to the next spline unless it's the last.
+   */
+  private static double[] adaptiveSplineSteps(
+      List<Waypoint> pathPoints, int spline, PathResolution resolution, boolean includeEnd) {
+    SplineSampler sampler = new SplineSampler(pathPoints, spline, resolution);
+
+    sampler.add(0);
+    // Start from a few even pieces so an S bend can't hide between two samples
+    for (int i = 0; i < ADAPTIVE_SEED_STEPS; i++) {
+      sampler.subdivide((double) i / ADAPTIVE_SEED_STEPS, (double) (i + 1) / ADAPTIVE_SEED_STEPS);
+    }
+
+    return sampler.getSteps(includeEnd);
+  }
+
+  /** Holonomic rotation in degrees at a point along a spline */
+  private static double holonomicRotationAt(List<Waypoint> pathPoints, int i, double t) {
+    Rotation2d startRot = pathPoints.get(i).holonomicRotation;
+    Rotation2d endRot = pathPoints.get(i + 1).holonomicRotation;
+
+    int startSeachOffset = 0;
+    int endSearchOffset = 0;
+
+    while (startRot == null || endRot == null) {
+      if (startRot == null) {
+        startSeachOffset++;
+        startRot = pathPoints.get(i - startSeachOffset).holonomicRotation;
+      }
+      if (endRot == null) {
+        endSearchOffset++;
+        endRot = pathPoints.get(i + 1 + endSearchOffset).holonomicRotation;
+      }
+    }
+
+    double deltaRot = endRot.minus(startRot).getDegrees();
+    deltaRot = MathUtil.inputModulus(deltaRot, -180, 180);
+
+    int startRotIndex = i - startSeachOffset;
+    int endRotIndex = i + 1 + endSearchOffset;
+    int rotRange = endRotIndex - startRotIndex;
+
+    double holonomicRot =
+        GeometryUtil.cosineInterpolate(
+                startRot,
+                Rotation2d.fromDegrees(startRot.getDegrees() + deltaRot),
+                ((i + t) - startRotIndex) / rotRange)
+            .getDegrees();
+    return MathUtil.inputModulus(holonomicRot, -180, 180);
+  }
+
+  /** Recursively halves steps along one spline until they are within tolerance */
+  private static class SplineSampler {
+    private final List<Waypoint> pathPoints;
+    private final int spline;
+    private final PathResolution resolution;
+    private final double[] x = new double[4];
+    private final double[] y = new double[4];
+
+    private double[] steps = new double[64];
+    private int count = 0;
+
+    private SplineSampler(List<Waypoint> pathPoints, int spline, PathResolution resolution) {
+      this.pathPoints = pathPoints;
+      this.spline = spline;
+      this.resolution = resolution;
+
+      Waypoint start = pathPoints.get(spline);
+      Waypoint end = pathPoints.get(spline + 1);
+      Translation2d[] controlPoints = {
+        start.anchorPoint, start.nextControl, end.prevControl, end.anchorPoint
+      };
+      for (int i = 0; i < 4; i++) {
+        x[i] = controlPoints[i].getX();
+        y[i] = controlPoints[i].getY();
+      }
+    }
+
+    private void add(double t) {
+      if (count == steps.length) {
+        steps = Arrays.copyOf(steps, count * 2);
+      }
+      steps[count++] = t;
+    }
+
+    private double[] getSteps(boolean includeEnd) {
+      // The last step added is always t = 1
+      return Arrays.copyOf(steps, includeEnd ? count : count - 1);
+    }
+
+    private void subdivide(double t0, double t1) {
+      double tm = (t0 + t1) / 2;
+
+      if (tm - t0 < resolution.step || withinTolerance(t0, tm, t1)) {
+        add(t1);
+        return;
+      }
+
+      subdivide(t0, tm);
+      subdivide(tm, t1);
+    }
+
+    private boolean withinTolerance(double t0, double tm, double t1) {
+      double x0 = bezier(x, t0);
+      double y0 = bezier(y, t0);
+      double x1 = bezier(x, t1);
+      double y1 = bezier(y, t1);
+
+      if (Math.hypot(x1 - x0, y1 - y0) > resolution.maxStepMeters) return false;
+
+      // Distance from the middle of the spline to the middle of the straight line between states
+      double chordError = Math.hypot(bezier(x, tm) - (x0 + x1) / 2, bezier(y, tm) - (y0 + y1) / 2);
+      if (chordError > resolution.maxErrorMeters) return false;
+
+      double dx0 = bezierDerivative(x, t0);
+      double dy0 = bezierDerivative(y, t0);
+      double dx1 = bezierDerivative(x, t1);
+      double dy1 = bezierDerivative(y, t1);
+
+      // The derivative is zero where a control point sits on its anchor, heading is undefined there
+      if (Math.hypot(dx0, dy0) > 1E-9 && Math.hypot(dx1, dy1) > 1E-9) {
+        double headingChange =
+            MathUtil.angleModulus(Math.atan2(dy1, dx1) - Math.atan2(dy0, dx0));
+        if (Math.abs(headingChange) > resolution.maxRotationRadians) return false;
+      }
+
+      double rotationChange =
+          MathUtil.inputModulus(
+              holonomicRotationAt(pathPoints, spline, t1)
+                  - holonomicRotationAt(pathPoints, spline, t0),
+              -180,
+              180);
+      return Math.abs(Math.toRadians(rotationChange)) <= resolution.maxRotationRadians;
+    }
+
+    private static double bezier(double[] p, double t) {
+      double u = 1 - t;
+      return u * u * u * p[0] + 3 * u * u * t * p[1] + 3 * u * t * t * p[2] + t * t * t * p[3];
+    }
+
+    private static double bezierDerivative(double[] p, double t) {
+      double u = 1 - t;
+      return 3 * u * u * (p[1] - p[0]) + 6 * u * t * (p[2] - p[1]) + 3 * t * t * (p[3] - p[2]);
+    }
+  }
+
   private static double calculateRadius(
       PathPlannerState s0, PathPlannerState s1, PathPlannerState s2) {
     Translation2d a = s0.poseMeters.getTranslation();
@@ -485,8 +660,9 @@ public class PathPlannerTrajectory extends Trajectory {
   }
 
   /** Assumes states have already been generated and the markers list has been populated */
-  private void calculateMarkerTimes(List<Waypoint> waypoints) {
-    for (EventMarker marker : this.markers) {
+  private static void calculateMarkerTimes(
+      List<PathPlannerState> states, List<Waypoint> waypoints, List<EventMarker> markers) {
+    for (EventMarker marker : markers) {
       int startIndex = (int) marker.waypointRelativePos;
       double t = marker.waypointRelativePos % 1;
 
@@ -506,26 +682,34 @@ public class PathPlannerTrajectory extends Trajectory {
               endPoint.anchorPoint,
               t);
 
-      int statesPerWaypoint = (int) (1 / PathPlanner.resolution);
-      startIndex =
-          (int)
-              ((statesPerWaypoint * marker.waypointRelativePos)
-                  - Math.floor(marker.waypointRelativePos));
-      t = (statesPerWaypoint * marker.waypointRelativePos) % 1;
-
-      if (startIndex == getStates().size() - 1) {
-        startIndex--;
-        t = 1;
+      // States are not evenly spaced, find the pair of states the marker falls between
+      int low = 0;
+      int high = states.size() - 1;
+      while (low != high) {
+        int mid = (low + high) / 2;
+        if (states.get(mid).waypointRelativePos < marker.waypointRelativePos) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
       }
 
-      double start = getState(startIndex).timeSeconds;
-      double end = getState(startIndex + 1).timeSeconds;
-
-      marker.timeSeconds = GeometryUtil.doubleLerp(start, end, t);
+      if (low == 0) {
+        marker.timeSeconds = states.get(0).timeSeconds;
+      } else {
+        PathPlannerState prev = states.get(low - 1);
+        PathPlannerState next = states.get(low);
+        double span = next.waypointRelativePos - prev.waypointRelativePos;
+        double stateT =
+            span > 0 ? (marker.waypointRelativePos - prev.waypointRelativePos) / span : 1;
+
+        marker.timeSeconds =
+            GeometryUtil.doubleLerp(prev.timeSeconds, next.timeSeconds, Math.min(stateT, 1));
+      }
     }
 
     // Ensure the markers are sorted by time
-    this.markers.sort(Comparator.comparingDouble(m -> m.timeSeconds));
+    markers.sort(Comparator.comparingDouble(m -> m.timeSeconds));
   }
 
   public static class PathPlannerState extends State {
@@ -533,43 +717,10 @@ public class PathPlannerTrajectory extends Trajectory {
     public Rotation2d holonomicRotation = new Rotation2d();
     public double holonomicAngularVelocityRadPerSec = 0;
 
-    private double curveRadius = 0;
-    private double deltaPos = 0;
-
-    private PathPlannerState interpolate(PathPlannerState endVal, double t) {
-      PathPlannerState lerpedState = new PathPlannerState();
-
-      lerpedState.timeSeconds = GeometryUtil.doubleLerp(timeSeconds, endVal.timeSeconds, t);
-      double deltaT = lerpedState.timeSeconds - timeSeconds;
-
-      if (deltaT < 0) {
-        return endVal.interpolate(this, 1 - t);
-      }
-
-      lerpedState.velocityMetersPerSecond =
-          GeometryUtil.doubleLerp(velocityMetersPerSecond, endVal.velocityMetersPerSecond, t);
-      lerpedState.accelerationMetersPerSecondSq =
-          GeometryUtil.doubleLerp(
-              accelerationMetersPerSecondSq, endVal.accelerationMetersPerSecondSq, t);
-      Translation2d newTrans =
-          GeometryUtil.translationLerp(
-              poseMeters.getTranslation(), endVal.poseMeters.getTranslation(), t);
-      Rotation2d newHeading =
-          GeometryUtil.rotationLerp(poseMeters.getRotation(), endVal.poseMeters.getRotation(), t);
-      lerpedState.poseMeters = new Pose2d(newTrans, newHeading);
-      lerpedState.angularVelocityRadPerSec =
-          GeometryUtil.doubleLerp(angularVelocityRadPerSec, endVal.angularVelocityRadPerSec, t);
-      lerpedState.holonomicAngularVelocityRadPerSec =
-          GeometryUtil.doubleLerp(
-              holonomicAngularVelocityRadPerSec, endVal.holonomicAngularVelocityRadPerSec, t);
-      lerpedState.holonomicRotation =
-          GeometryUtil.rotationLerp(holonomicRotation, endVal.holonomicRotation, t);
-      lerpedState.curveRadius = GeometryUtil.doubleLerp(curveRadius, endVal.curveRadius, t);
-      lerpedState.curvatureRadPerMeter =
-          GeometryUtil.doubleLerp(curvatureRadPerMeter, endVal.curvatureRadPerMeter, t);
-
-      return lerpedState;
-    }
+    double curveRadius = 0;
+    double deltaPos = 0;
+    // Only used while generating the path
+    double waypointRelativePos = 0;
   }
 
   public static class Waypoint {
@@ -0,0 +1,53 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+/**
+ * How finely the splines of a path are sampled into trajectory states.
+ *
+ * <p>Adaptive sampling splits each spline until every step is within the error tolerances, so
+ * straight sections get a few states and tight curves get many. Fixed sampling takes the same
+ * number of steps along every spline regardless of its length or shape.
+ */
+public class PathResolution {
+    /** The spline step used before adaptive sampling, also the smallest step adaptive will take */
+    public static final double MIN_STEP = 0.004;
+
+    /** Adaptive sampling with 5mm of chord error, 10cm steps and 5 degrees of rotation per step */
+    public static final PathResolution DEFAULT = adaptive(0.005, 0.1, Math.toRadians(5));
+
+    public final boolean adaptive;
+    public final double step;
+    public final double maxErrorMeters;
+    public final double maxStepMeters;
+    public final double maxRotationRadians;
+
+    private PathResolution(boolean adaptive, double step, double maxErrorMeters, double maxStepMeters, double maxRotationRadians) {
+        this.adaptive = adaptive;
+        this.step = step;
+        this.maxErrorMeters = maxErrorMeters;
+        this.maxStepMeters = maxStepMeters;
+        this.maxRotationRadians = maxRotationRadians;
+    }
+
+    /**
+     * Sample every spline at a fixed step
+     *
+     * @param step Step along each spline, from 0 to 1. 0.004 gives 250 states per spline
+     * @return The resolution
+     */
+    public static PathResolution fixed(double step) {
+        return new PathResolution(false, step, 0, 0, 0);
+    }
+
+    /**
+     * Sample splines adaptively. A step is split in half until it meets every tolerance, or until
+     * it reaches MIN_STEP.
+     *
+     * @param maxErrorMeters Max distance between the spline and a straight line between two states
+     * @param maxStepMeters Max distance between two states
+     * @param maxRotationRadians Max change in heading or holonomic rotation between two states
+     * @return The resolution
+     */
+    public static PathResolution adaptive(double maxErrorMeters, double maxStepMeters, double maxRotationRadians) {
+        return new PathResolution(true, MIN_STEP, maxErrorMeters, maxStepMeters, maxRotationRadians);
+    }
+}
@@ -0,0 +1,359 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * On-disk cache of generated trajectories.
+ *
+ * <p>Generating a path means parsing the .path JSON and sampling thousands of states, which is
+ * the bulk of our boot time. The cache stores the generated states in a compact binary file next
+ * to the path files, keyed by a hash of the path file contents plus every parameter that affects
+ * generation, so an edited path or changed constraint is a cache miss and gets regenerated.
+ *
+ * <p>File layout (big endian): magic, version, 32 byte key, trajectory count, then for each
+ * trajectory its flags, stop events, markers and a flat block of state doubles.
+ */
+public class TrajectoryCache {
+  private static final int MAGIC = 0x50504354; // "PPCT"
+  private static final int VERSION = 2;
+  private static final int KEY_LENGTH = 32;
+  private static final int DOUBLES_PER_STATE = 11;
+
+  // Bytes of the key put in the file name, enough that different parameters never share a file
+  private static final int FILE_NAME_KEY_BYTES = 8;
+
+  private static boolean enabled = true;
+  private static File cacheDirectory = null;
+
+  /**
+   * Enable or disable the cache. When disabled every load regenerates the path and nothing is
+   * written to disk.
+   *
+   * @param enabled Should generated trajectories be cached
+   */
+  public static void setEnabled(boolean enabled) {
+    TrajectoryCache.enabled = enabled;
+  }
+
+  /**
+   * Check if the cache is enabled
+   *
+   * @return True if trajectories will be read from and written to the cache
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Get the directory cached trajectories are stored in
+   *
+   * @return The cache directory
+   */
+  public static File getCacheDirectory() {
+    if (cacheDirectory != null) return cacheDirectory;
+    return new File(Filesystem.getDeployDirectory(), "pathplanner/cache");
+  }
+
+  /**
+   * Store cached trajectories somewhere other than the deploy directory
+   *
+   * @param directory The cache directory, or null for the default
+   */
+  static void setCacheDirectory(File directory) {
+    cacheDirectory = directory;
+  }
+
+  /**
+   * Build the key for a cache entry. Anything that changes the generated states must be part of
+   * the key.
+   *
+   * @param pathFile Raw contents of the .path file
+   * @param kind What kind of load this is (single path or path group)
+   * @param reversed Should the robot follow the path reversed
+   * @param constraints Constraints of each path in the group, in order
+   * @param resolution How finely the splines are sampled
+   * @return The cache key
+   */
+  static byte[] key(
+      byte[] pathFile,
+      String kind,
+      boolean reversed,
+      List<PathConstraints> constraints,
+      PathResolution resolution) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(pathFile);
+
+      ByteBuffer params = ByteBuffer.allocate(48 + constraints.size() * 16);
+      params.putInt(VERSION);
+      params.put((byte) (reversed ? 1 : 0));
+      params.put((byte) (resolution.adaptive ? 1 : 0));
+      params.putDouble(resolution.step);
+      params.putDouble(resolution.maxErrorMeters);
+      params.putDouble(resolution.maxStepMeters);
+      params.putDouble(resolution.maxRotationRadians);
+      for (PathConstraints c : constraints) {
+        params.putDouble(c.maxVelocity);
+        params.putDouble(c.maxAcceleration);
+      }
+      digest.update(params.array(), 0, params.position());
+      digest.update(kind.getBytes(StandardCharsets.UTF_8));
+
+      return digest.digest();
+    } catch (NoSuchAlgorithmException e) {
+      // Every JVM is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get the name of the cache file for an entry. The start of the key is part of the name, so
+   * loading the same path with different parameters keeps an entry for each instead of replacing
+   * one with the other.
+   *
+   * @param name The name of the path
+   * @param kind What kind of load this is (single path or path group)
+   * @param key The key of the entry
+   * @return Name of the cache file, without the extension
+   */
+  static String fileName(String name, String kind, byte[] key) {
+    StringBuilder fileName = new StringBuilder(name).append('-');
+    for (int i = 0; i < FILE_NAME_KEY_BYTES; i++) {
+      fileName.append(Character.forDigit((key[i] >> 4) & 0xF, 16));
+      fileName.append(Character.forDigit(key[i] & 0xF, 16));
+    }
+    return fileName.append('.').append(kind).toString();
+  }
+
+  /**
+   * Load a cached trajectory group
+   *
+   * @param fileName Name of the cache file, without the extension
+   * @param key Key the entry must have been stored with
+   * @return The cached trajectories, or null if there was no matching entry
+   */
+  static List<PathPlannerTrajectory> load(String fileName, byte[] key) {
+    if (!enabled) return null;
+
+    File file = new File(getCacheDirectory(), fileName + ".traj");
+    if (!file.isFile()) return null;
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+
+      byte[] storedKey = new byte[KEY_LENGTH];
+      buf.get(storedKey);
+      if (!Arrays.equals(storedKey, key)) return null;
+
+      int count = buf.getInt();
+      List<PathPlannerTrajectory> trajectories = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        trajectories.add(readTrajectory(buf));
+      }
+      return trajectories;
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      DriverStation.reportWarning(
+          "Ignoring unreadable trajectory cache " + file + ": " + e.getMessage(), false);
+      return null;
+    }
+  }
+
+  /**
+   * Store a trajectory group in the cache, replacing any existing entry with the same file name.
+   *
+   * @param fileName Name of the cache file, without the extension
+   * @param key Key to store the entry with
+   * @param trajectories The generated trajectories
+   */
+  static void save(String fileName, byte[] key, List<PathPlannerTrajectory> trajectories) {
+    if (!enabled) return;
+
+    File dir = getCacheDirectory();
+    File file = new File(dir, fileName + ".traj");
+    File tmp = new File(dir, fileName + ".traj.tmp");
+
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      DriverStation.reportWarning("Unable to create trajectory cache directory " + dir, false);
+      return;
+    }
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.write(key);
+      out.writeInt(trajectories.size());
+      for (PathPlannerTrajectory trajectory : trajectories) {
+        writeTrajectory(out, trajectory);
+      }
+    } catch (IOException e) {
+      DriverStation.reportWarning("Unable to write trajectory cache " + file, false);
+      tmp.delete();
+      return;
+    }
+
+    // Rename into place so a reader never sees a half written file
+    if (!tmp.renameTo(file)) {
+      file.delete();
+      if (!tmp.renameTo(file)) {
+        tmp.delete();
+      }
+    }
+  }
+
+  private static void writeTrajectory(DataOutputStream out, PathPlannerTrajectory trajectory)
+      throws IOException {
+    out.writeBoolean(trajectory.fromGUI);
+    writeStopEvent(out, trajectory.getStartStopEvent());
+    writeStopEvent(out, trajectory.getEndStopEvent());
+
+    List<EventMarker> markers = trajectory.getMarkers();
+    out.writeInt(markers.size());
+    for (EventMarker marker : markers) {
+      writeStrings(out, marker.names);
+      out.writeDouble(marker.waypointRelativePos);
+      out.writeDouble(marker.timeSeconds);
+      out.writeBoolean(marker.positionMeters != null);
+      if (marker.positionMeters != null) {
+        out.writeDouble(marker.positionMeters.getX());
+        out.writeDouble(marker.positionMeters.getY());
+      }
+    }
+
+    TrajectoryStateBuffer states = trajectory.getStateBuffer();
+    out.writeInt(states.size());
+    for (int i = 0; i < states.size(); i++) {
+      out.writeDouble(states.timeSeconds[i]);
+      out.writeDouble(states.velocityMetersPerSecond[i]);
+      out.writeDouble(states.accelerationMetersPerSecondSq[i]);
+      out.writeDouble(states.xMeters[i]);
+      out.writeDouble(states.yMeters[i]);
+      out.writeDouble(states.headingRadians[i]);
+      out.writeDouble(states.curvatureRadPerMeter[i]);
+      out.writeDouble(states.angularVelocityRadPerSec[i]);
+      out.writeDouble(states.holonomicRotationRadians[i]);
+      out.writeDouble(states.holonomicAngularVelocityRadPerSec[i]);
+      out.writeDouble(states.curveRadius[i]);
+    }
+  }
+
+  private static PathPlannerTrajectory readTrajectory(ByteBuffer buf) {
+    boolean fromGUI = buf.get() != 0;
+    StopEvent startStopEvent = readStopEvent(buf);
+    StopEvent endStopEvent = readStopEvent(buf);
+
+    int markerCount = buf.getInt();
+    List<EventMarker> markers = new ArrayList<>(markerCount);
+    for (int i = 0; i < markerCount; i++) {
+      EventMarker marker = new EventMarker(readStrings(buf), buf.getDouble());
+      marker.timeSeconds = buf.getDouble();
+      if (buf.get() != 0) {
+        marker.positionMeters = new Translation2d(buf.getDouble(), buf.getDouble());
+      }
+      markers.add(marker);
+    }
+
+    int stateCount = buf.getInt();
+    if (stateCount <= 0 || stateCount > buf.remaining() / (DOUBLES_PER_STATE * Double.BYTES)) {
+      throw new IllegalArgumentException("Corrupt state count " + stateCount);
+    }
+
+    // Read straight into the primitive arrays, no state objects are needed
+    TrajectoryStateBuffer states = new TrajectoryStateBuffer(stateCount);
+    for (int i = 0; i < stateCount; i++) {
+      states.timeSeconds[i] = buf.getDouble();
+      states.velocityMetersPerSecond[i] = buf.getDouble();
+      states.accelerationMetersPerSecondSq[i] = buf.getDouble();
+      states.xMeters[i] = buf.getDouble();
+      states.yMeters[i] = buf.getDouble();
+      states.headingRadians[i] = buf.getDouble();
+      states.curvatureRadPerMeter[i] = buf.getDouble();
+      states.angularVelocityRadPerSec[i] = buf.getDouble();
+      states.holonomicRotationRadians[i] = buf.getDouble();
+      states.holonomicAngularVelocityRadPerSec[i] = buf.getDouble();
+      states.curveRadius[i] = buf.getDouble();
+    }
+
+    return new PathPlannerTrajectory(states, markers, startStopEvent, endStopEvent, fromGUI);
+  }
+
+  private static void writeStopEvent(DataOutputStream out, StopEvent event) throws IOException {
+    writeStrings(out, event.names);
+    writeString(out, event.executionBehavior.value);
+    writeString(out, event.waitBehavior.value);
+    out.writeDouble(event.waitTime);
+  }
+
+  private static StopEvent readStopEvent(ByteBuffer buf) {
+    List<String> names = readStrings(buf);
+    StopEvent.ExecutionBehavior executionBehavior =
+        StopEvent.ExecutionBehavior.fromValue(readString(buf));
+    StopEvent.WaitBehavior waitBehavior = StopEvent.WaitBehavior.fromValue(readString(buf));
+    double waitTime = buf.getDouble();
+
+    if (executionBehavior == null || waitBehavior == null) {
+      throw new IllegalArgumentException("Unknown stop event behavior");
+    }
+
+    return new StopEvent(names, executionBehavior, waitBehavior, waitTime);
+  }
+
+  private static void writeStrings(DataOutputStream out, List<String> strings)
+      throws IOException {
+    out.writeInt(strings.size());
+    for (String s : strings) {
+      writeString(out, s);
+    }
+  }
+
+  private static List<String> readStrings(ByteBuffer buf) {
+    int count = buf.getInt();
+    if (count < 0 || count > buf.remaining()) {
+      throw new IllegalArgumentException("Corrupt string count " + count);
+    }
+
+    List<String> strings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      strings.add(readString(buf));
+    }
+    return strings;
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buf) {
+    int length = buf.getInt();
+    if (length < 0 || length > buf.remaining()) {
+      throw new IllegalArgumentException("Corrupt string length " + length);
+    }
+
+    byte[] bytes = new byte[length];
+    buf.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,327 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Primitive array backed storage for the states of a PathPlannerTrajectory.
+ *
+ * <p>Each field of a state lives in its own double[], indexed by state number, so a path costs a
+ * handful of arrays instead of a PathPlannerState, Pose2d, Translation2d and two Rotation2d per
+ * sample. State objects are only built when something asks for one through getState() or the
+ * list view handed to WPILib's Trajectory.
+ *
+ * <p>Rotations are stored in radians.
+ */
+public class TrajectoryStateBuffer {
+  private static final int MAX_CURSOR_STEPS = 16;
+
+  final double[] timeSeconds;
+  final double[] velocityMetersPerSecond;
+  final double[] accelerationMetersPerSecondSq;
+  final double[] xMeters;
+  final double[] yMeters;
+  final double[] headingRadians;
+  final double[] curvatureRadPerMeter;
+  final double[] angularVelocityRadPerSec;
+  final double[] holonomicRotationRadians;
+  final double[] holonomicAngularVelocityRadPerSec;
+  final double[] curveRadius;
+
+  private final int size;
+  private final List<State> stateView = new StateView();
+
+  TrajectoryStateBuffer(int size) {
+    this.size = size;
+    this.timeSeconds = new double[size];
+    this.velocityMetersPerSecond = new double[size];
+    this.accelerationMetersPerSecondSq = new double[size];
+    this.xMeters = new double[size];
+    this.yMeters = new double[size];
+    this.headingRadians = new double[size];
+    this.curvatureRadPerMeter = new double[size];
+    this.angularVelocityRadPerSec = new double[size];
+    this.holonomicRotationRadians = new double[size];
+    this.holonomicAngularVelocityRadPerSec = new double[size];
+    this.curveRadius = new double[size];
+  }
+
+  /**
+   * Copy a list of states into a new buffer. States that are not PathPlannerStates get a zero
+   * holonomic rotation and angular velocity.
+   *
+   * @param states The states to copy
+   * @return A buffer holding the same states
+   */
+  static TrajectoryStateBuffer fromStates(List<? extends State> states) {
+    TrajectoryStateBuffer buffer = new TrajectoryStateBuffer(states.size());
+
+    for (int i = 0; i < states.size(); i++) {
+      State state = states.get(i);
+
+      buffer.timeSeconds[i] = state.timeSeconds;
+      buffer.velocityMetersPerSecond[i] = state.velocityMetersPerSecond;
+      buffer.accelerationMetersPerSecondSq[i] = state.accelerationMetersPerSecondSq;
+      buffer.xMeters[i] = state.poseMeters.getX();
+      buffer.yMeters[i] = state.poseMeters.getY();
+      buffer.headingRadians[i] = state.poseMeters.getRotation().getRadians();
+      buffer.curvatureRadPerMeter[i] = state.curvatureRadPerMeter;
+
+      if (state instanceof PathPlannerState) {
+        PathPlannerState ppState = (PathPlannerState) state;
+
+        buffer.angularVelocityRadPerSec[i] = ppState.angularVelocityRadPerSec;
+        buffer.holonomicRotationRadians[i] = ppState.holonomicRotation.getRadians();
+        buffer.holonomicAngularVelocityRadPerSec[i] = ppState.holonomicAngularVelocityRadPerSec;
+        buffer.curveRadius[i] = ppState.curveRadius;
+      }
+    }
+
+    return buffer;
+  }
+
+  /**
+   * Get the number of states in the buffer
+   *
+   * @return The number of states
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the time of the last state
+   *
+   * @return The total time of the trajectory in seconds
+   */
+  public double getTotalTimeSeconds() {
+    return size == 0 ? 0 : timeSeconds[size - 1];
+  }
+
+  /**
+   * Build a state object for the state at the given index
+   *
+   * @param i The index of the state
+   * @return A new PathPlannerState holding the values at that index
+   */
+  public PathPlannerState getState(int i) {
+    PathPlannerState state = new PathPlannerState();
+
+    state.timeSeconds = timeSeconds[i];
+    state.velocityMetersPerSecond = velocityMetersPerSecond[i];
+    state.accelerationMetersPerSecondSq = accelerationMetersPerSecondSq[i];
+    state.poseMeters = new Pose2d(xMeters[i], yMeters[i], new Rotation2d(headingRadians[i]));
+    state.curvatureRadPerMeter = curvatureRadPerMeter[i];
+    state.angularVelocityRadPerSec = angularVelocityRadPerSec[i];
+    state.holonomicRotation = new Rotation2d(holonomicRotationRadians[i]);
+    state.holonomicAngularVelocityRadPerSec = holonomicAngularVelocityRadPerSec[i];
+    state.curveRadius = curveRadius[i];
+
+    return state;
+  }
+
+  /**
+   * Get a read only list view of the states. Elements are built on every get() call, so hold on
+   * to the result rather than calling get() repeatedly for the same index.
+   *
+   * @return The states as a list
+   */
+  public List<State> asStateList() {
+    return stateView;
+  }
+
+  /**
+   * Sample the buffer at a point in time
+   *
+   * @param time The time to sample
+   * @return The interpolated state at the given point in time
+   */
+  public PathPlannerState sample(double time) {
+    if (time <= timeSeconds[0]) return getState(0);
+    if (time >= getTotalTimeSeconds()) return getState(size - 1);
+
+    int i = indexAfter(time, 1, size - 1);
+    int prev = i - 1;
+
+    if (Math.abs(timeSeconds[i] - timeSeconds[prev]) < 1E-3) return getState(i);
+
+    double t = (time - timeSeconds[prev]) / (timeSeconds[i] - timeSeconds[prev]);
+
+    PathPlannerState state = new PathPlannerState();
+
+    state.timeSeconds = lerp(timeSeconds, prev, t);
+    state.velocityMetersPerSecond = lerp(velocityMetersPerSecond, prev, t);
+    state.accelerationMetersPerSecondSq = lerp(accelerationMetersPerSecondSq, prev, t);
+    state.poseMeters =
+        new Pose2d(
+            lerp(xMeters, prev, t),
+            lerp(yMeters, prev, t),
+            new Rotation2d(angleLerp(headingRadians, prev, t)));
+    state.angularVelocityRadPerSec = lerp(angularVelocityRadPerSec, prev, t);
+    state.holonomicAngularVelocityRadPerSec = lerp(holonomicAngularVelocityRadPerSec, prev, t);
+    state.holonomicRotation = new Rotation2d(angleLerp(holonomicRotationRadians, prev, t));
+    state.curveRadius = lerp(curveRadius, prev, t);
+    state.curvatureRadPerMeter = lerp(curvatureRadPerMeter, prev, t);
+
+    return state;
+  }
+
+  /**
+   * Sample the buffer at a point in time, writing the result into a caller owned state. Nothing is
+   * allocated.
+   *
+   * @param time The time to sample
+   * @param out The state to write the sample into
+   */
+  public void sample(double time, MutablePathPlannerState out) {
+    if (out.cursorBuffer != this) {
+      out.cursorBuffer = this;
+      out.cursor = 1;
+    }
+
+    if (time <= timeSeconds[0]) {
+      out.cursor = 1;
+      copyState(0, out);
+      return;
+    }
+    if (time >= getTotalTimeSeconds()) {
+      copyState(size - 1, out);
+      return;
+    }
+
+    int i = out.cursor;
+    if (i < 1 || i >= size || timeSeconds[i - 1] >= time) {
+      // Time went backwards, start over
+      i = indexAfter(time, 1, size - 1);
+    } else {
+      // Time normally moves a few states per loop, walk forward before falling back to a search
+      int steps = 0;
+      while (timeSeconds[i] < time && steps < MAX_CURSOR_STEPS) {
+        i++;
+        steps++;
+      }
+      if (timeSeconds[i] < time) {
+        i = indexAfter(time, i, size - 1);
+      }
+    }
+    out.cursor = i;
+
+    int prev = i - 1;
+
+    if (Math.abs(timeSeconds[i] - timeSeconds[prev]) < 1E-3) {
+      copyState(i, out);
+      return;
+    }
+
+    double t = (time - timeSeconds[prev]) / (timeSeconds[i] - timeSeconds[prev]);
+
+    out.timeSeconds = lerp(timeSeconds, prev, t);
+    out.velocityMetersPerSecond = lerp(velocityMetersPerSecond, prev, t);
+    out.accelerationMetersPerSecondSq = lerp(accelerationMetersPerSecondSq, prev, t);
+    out.xMeters = lerp(xMeters, prev, t);
+    out.yMeters = lerp(yMeters, prev, t);
+    out.headingRadians = angleLerp(headingRadians, prev, t);
+    out.curvatureRadPerMeter = lerp(curvatureRadPerMeter, prev, t);
+    out.angularVelocityRadPerSec = lerp(angularVelocityRadPerSec, prev, t);
+    out.holonomicRotationRadians = angleLerp(holonomicRotationRadians, prev, t);
+    out.holonomicAngularVelocityRadPerSec = lerp(holonomicAngularVelocityRadPerSec, prev, t);
+    out.curveRadius = lerp(curveRadius, prev, t);
+  }
+
+  /**
+   * Copy the state at the given index into a caller owned state
+   *
+   * @param i The index of the state
+   * @param out The state to write into
+   */
+  public void copyState(int i, MutablePathPlannerState out) {
+    out.timeSeconds = timeSeconds[i];
+    out.velocityMetersPerSecond = velocityMetersPerSecond[i];
+    out.accelerationMetersPerSecondSq = accelerationMetersPerSecondSq[i];
+    out.xMeters = xMeters[i];
+    out.yMeters = yMeters[i];
+    out.headingRadians = headingRadians[i];
+    out.curvatureRadPerMeter = curvatureRadPerMeter[i];
+    out.angularVelocityRadPerSec = angularVelocityRadPerSec[i];
+    out.holonomicRotationRadians = holonomicRotationRadians[i];
+    out.holonomicAngularVelocityRadPerSec = holonomicAngularVelocityRadPerSec[i];
+    out.curveRadius = curveRadius[i];
+  }
+
+  /**
+   * Find the first state in [low, high] at or after the given time. Assumes time is strictly
+   * between the first and last state times.
+   */
+  int indexAfter(double time, int low, int high) {
+    while (low != high) {
+      int mid = (low + high) / 2;
+      if (timeSeconds[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Create a copy of this buffer flipped across the center line of the field, as when running a
+   * blue alliance path on the red alliance
+   *
+   * @param fieldWidthMeters Width of the field
+   * @return The mirrored buffer
+   */
+  TrajectoryStateBuffer mirrored(double fieldWidthMeters) {
+    TrajectoryStateBuffer mirrored = new TrajectoryStateBuffer(size);
+
+    System.arraycopy(timeSeconds, 0, mirrored.timeSeconds, 0, size);
+    System.arraycopy(velocityMetersPerSecond, 0, mirrored.velocityMetersPerSecond, 0, size);
+    System.arraycopy(
+        accelerationMetersPerSecondSq, 0, mirrored.accelerationMetersPerSecondSq, 0, size);
+    System.arraycopy(xMeters, 0, mirrored.xMeters, 0, size);
+
+    for (int i = 0; i < size; i++) {
+      mirrored.yMeters[i] = fieldWidthMeters - yMeters[i];
+      mirrored.headingRadians[i] = -headingRadians[i];
+      mirrored.curvatureRadPerMeter[i] = -curvatureRadPerMeter[i];
+      mirrored.angularVelocityRadPerSec[i] = -angularVelocityRadPerSec[i];
+      mirrored.holonomicRotationRadians[i] = -holonomicRotationRadians[i];
+      mirrored.holonomicAngularVelocityRadPerSec[i] = -holonomicAngularVelocityRadPerSec[i];
+      mirrored.curveRadius[i] = -curveRadius[i];
+    }
+
+    return mirrored;
+  }
+
+  private static double lerp(double[] values, int i, double t) {
+    return GeometryUtil.doubleLerp(values[i], values[i + 1], t);
+  }
+
+  /** Same as GeometryUtil.rotationLerp, interpolating across the shortest direction */
+  private static double angleLerp(double[] radians, int i, double t) {
+    double delta = MathUtil.angleModulus(radians[i + 1] - radians[i]);
+    return MathUtil.angleModulus(radians[i] + delta * t);
+  }
+
+  private class StateView extends AbstractList<State> implements RandomAccess {
+    @Override
+    public State get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return getState(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
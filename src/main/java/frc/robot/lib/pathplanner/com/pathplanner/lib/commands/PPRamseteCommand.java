@@ -212,6 +212,9 @@ public class PPRamseteCommand extends CommandBase {
 
         this.prevTime = -1;
 
+        // Errors are logged in execute, nothing else should get this command's samples
+        PathPlannerServer.setPathFollowingListener(null);
+
         if (logActiveTrajectory != null) {
             logActiveTrajectory.accept(transformedTrajectory);
         }
@@ -248,7 +251,9 @@ public class PPRamseteCommand extends CommandBase {
         PathPlannerTrajectory.PathPlannerState desiredState =
                 (PathPlannerTrajectory.PathPlannerState) transformedTrajectory.sample(currentTime);
 
-        PathPlannerServer.sendPathFollowingData(desiredState.poseMeters, currentPose);
+        PathPlannerServer.offerPathFollowingData(currentTime, desiredState.poseMeters.getX(),
+                desiredState.poseMeters.getY(), desiredState.poseMeters.getRotation().getRadians(),
+                currentPose.getX(), currentPose.getY(), currentPose.getRotation().getRadians());
 
         ChassisSpeeds targetChassisSpeeds = this.controller.calculate(currentPose, desiredState);
         DifferentialDriveWheelSpeeds targetWheelSpeeds =
@@ -1,10 +1,12 @@
 package frc.robot.lib.pathplanner.com.pathplanner.lib.commands;
 
+import frc.robot.lib.pathplanner.com.pathplanner.lib.MutablePathPlannerState;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory;
-import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import frc.robot.lib.pathplanner.com.pathplanner.lib.server.PathFollowingListener;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.server.PathPlannerServer;
 import frc.robot.lib.shuffleboard.LightningShuffleboard;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -33,12 +35,22 @@ public class PPSwerveControllerCommand extends CommandBase {
     private final boolean useAllianceColor;
 
     private PathPlannerTrajectory transformedTrajectory;
-    private PathPlannerState desiredState = new PathPlannerState();
+    // Reused every loop so following a path does not allocate
+    private final MutablePathPlannerState desiredState = new MutablePathPlannerState();
+    private final ChassisSpeeds targetChassisSpeeds = new ChassisSpeeds();
+
+    private static final BiConsumer<Translation2d, Rotation2d> DEFAULT_LOG_ERROR = PPSwerveControllerCommand::defaultLogError;
 
     private static Consumer<PathPlannerTrajectory> logActiveTrajectory = null;
     private static Consumer<Pose2d> logTargetPose = null;
     private static Consumer<ChassisSpeeds> logSetpoint = null;
-    private static BiConsumer<Translation2d, Rotation2d> logError = PPSwerveControllerCommand::defaultLogError;
+    private static BiConsumer<Translation2d, Rotation2d> logError = DEFAULT_LOG_ERROR;
+
+    // The default error logging runs on the PathPlannerServer's sender thread instead of the loop. Installed
+    // by initialize, since the server also gets samples from other following commands
+    private static final PathFollowingListener DEFAULT_ERROR_LISTENER =
+            (time, targetX, targetY, targetTheta, actualX, actualY, actualTheta) -> defaultLogError(actualX - targetX, actualY - targetY,
+                    MathUtil.angleModulus(actualTheta - targetTheta));
 
     /**
      * Constructs a new PPSwerveControllerCommand that when executed will follow the provided
@@ -72,9 +84,9 @@ public class PPSwerveControllerCommand extends CommandBase {
         this.useKinematics = false;
         this.useAllianceColor = useAllianceColor;
 
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose x", () -> desiredState.poseMeters.getX());
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose Y", () -> desiredState.poseMeters.getY());
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target holonomic rotation", () -> desiredState.holonomicRotation.getDegrees());
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose x", () -> desiredState.xMeters);
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose Y", () -> desiredState.yMeters);
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target holonomic rotation", () -> Math.toDegrees(desiredState.holonomicRotationRadians));
         LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target velocity", () -> desiredState.velocityMetersPerSecond);
 
         addRequirements(requirements);
@@ -141,9 +153,9 @@ public class PPSwerveControllerCommand extends CommandBase {
         this.useKinematics = true;
         this.useAllianceColor = useAllianceColor;
 
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose x", () -> desiredState.poseMeters.getX());
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose Y", () -> desiredState.poseMeters.getY());
-        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target holonomic rotation", () -> desiredState.holonomicRotation.getDegrees());
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose x", () -> desiredState.xMeters);
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target pose Y", () -> desiredState.yMeters);
+        LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target holonomic rotation", () -> Math.toDegrees(desiredState.holonomicRotationRadians));
         LightningShuffleboard.setDoubleSupplier("Autonomous", "auto target velocity", () -> desiredState.velocityMetersPerSecond);
 
         addRequirements(requirements);
@@ -190,22 +202,26 @@ public class PPSwerveControllerCommand extends CommandBase {
             logActiveTrajectory.accept(transformedTrajectory);
         }
 
+        desiredState.resetCursor();
+
         timer.reset();
         timer.start();
 
+        PathPlannerServer.setPathFollowingListener(logError == DEFAULT_LOG_ERROR ? DEFAULT_ERROR_LISTENER : null);
         PathPlannerServer.sendActivePath(transformedTrajectory.getStates());
     }
 
     @Override
     public void execute() {
         double currentTime = this.timer.get();
-        desiredState = (PathPlannerState) transformedTrajectory.sample(currentTime);
+        transformedTrajectory.sample(currentTime, desiredState);
 
         Pose2d currentPose = this.poseSupplier.get();
 
-        PathPlannerServer.sendPathFollowingData(new Pose2d(desiredState.poseMeters.getTranslation(), desiredState.holonomicRotation), currentPose);
+        PathPlannerServer.offerPathFollowingData(currentTime, desiredState.xMeters, desiredState.yMeters, desiredState.holonomicRotationRadians, currentPose.getX(),
+                currentPose.getY(), currentPose.getRotation().getRadians());
 
-        ChassisSpeeds targetChassisSpeeds = this.controller.calculate(currentPose, desiredState);
+        this.controller.calculate(currentPose, desiredState, targetChassisSpeeds);
 
         if (this.useKinematics) {
             SwerveModuleState[] targetModuleStates = this.kinematics.toSwerveModuleStates(targetChassisSpeeds);
@@ -216,11 +232,13 @@ public class PPSwerveControllerCommand extends CommandBase {
         }
 
         if (logTargetPose != null) {
-            logTargetPose.accept(new Pose2d(desiredState.poseMeters.getTranslation(), desiredState.holonomicRotation));
+            logTargetPose.accept(desiredState.getHolonomicPose());
         }
 
-        if (logError != null) {
-            logError.accept(currentPose.getTranslation().minus(desiredState.poseMeters.getTranslation()), currentPose.getRotation().minus(desiredState.holonomicRotation));
+        // The default error logging is done by DEFAULT_ERROR_LISTENER
+        if (logError != null && logError != DEFAULT_LOG_ERROR) {
+            logError.accept(new Translation2d(currentPose.getX() - desiredState.xMeters, currentPose.getY() - desiredState.yMeters),
+                    currentPose.getRotation().minus(new Rotation2d(desiredState.holonomicRotationRadians)));
         }
 
         if (logSetpoint != null) {
@@ -247,9 +265,13 @@ public class PPSwerveControllerCommand extends CommandBase {
     }
 
     private static void defaultLogError(Translation2d translationError, Rotation2d rotationError) {
-        SmartDashboard.putNumber("PPSwerveControllerCommand/xErrorMeters", translationError.getX());
-        SmartDashboard.putNumber("PPSwerveControllerCommand/yErrorMeters", translationError.getY());
-        SmartDashboard.putNumber("PPSwerveControllerCommand/rotationErrorDegrees", rotationError.getDegrees());
+        defaultLogError(translationError.getX(), translationError.getY(), rotationError.getRadians());
+    }
+
+    private static void defaultLogError(double xErrorMeters, double yErrorMeters, double rotationErrorRadians) {
+        SmartDashboard.putNumber("PPSwerveControllerCommand/xErrorMeters", xErrorMeters);
+        SmartDashboard.putNumber("PPSwerveControllerCommand/yErrorMeters", yErrorMeters);
+        SmartDashboard.putNumber("PPSwerveControllerCommand/rotationErrorDegrees", Math.toDegrees(rotationErrorRadians));
     }
 
     /**
@@ -260,7 +282,8 @@ public class PPSwerveControllerCommand extends CommandBase {
      *        path. This will be called whenever a PPSwerveControllerCommand starts
      * @param logTargetPose Consumer that accepts a Pose2d representing the target pose while path
      *        following
-     * @param logSetpoint Consumer that accepts a ChassisSpeeds object representing the setpoint speeds
+     * @param logSetpoint Consumer that accepts a ChassisSpeeds object representing the setpoint speeds.
+     *        The object is reused every loop, copy it if it needs to be kept
      * @param logError BiConsumer that accepts a Translation2d and Rotation2d representing the error
      *        while path following
      */
@@ -1,6 +1,8 @@
 package frc.robot.lib.pathplanner.com.pathplanner.lib.controllers;
 
+import frc.robot.lib.pathplanner.com.pathplanner.lib.MutablePathPlannerState;
 import frc.robot.lib.pathplanner.com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -22,8 +24,9 @@ public class PPHolonomicDriveController {
     private final PIDController rotationController;
     private final PIDController poseController;
 
-    private Translation2d translationError = new Translation2d();
-    private Rotation2d rotationError = new Rotation2d();
+    private double translationErrorX = 0;
+    private double translationErrorY = 0;
+    private double rotationErrorRadians = 0;
     private Pose2d tolerance = new Pose2d();
     private boolean isEnabled = true;
 
@@ -54,9 +57,9 @@ public class PPHolonomicDriveController {
         Translation2d translationTolerance = this.tolerance.getTranslation();
         Rotation2d rotationTolerance = this.tolerance.getRotation();
 
-        return Math.abs(this.translationError.getX()) < translationTolerance.getX()
-                && Math.abs(this.translationError.getY()) < translationTolerance.getY()
-                && Math.abs(this.rotationError.getRadians()) < rotationTolerance.getRadians();
+        return Math.abs(this.translationErrorX) < translationTolerance.getX()
+                && Math.abs(this.translationErrorY) < translationTolerance.getY()
+                && Math.abs(this.rotationErrorRadians) < rotationTolerance.getRadians();
     }
 
     /**
@@ -92,8 +95,10 @@ public class PPHolonomicDriveController {
                 * referenceState.poseMeters.getRotation().getSin();
         double rotationFF = referenceState.holonomicAngularVelocityRadPerSec;
 
-        this.translationError = referenceState.poseMeters.relativeTo(currentPose).getTranslation();
-        this.rotationError = referenceState.holonomicRotation.minus(currentPose.getRotation());
+        Translation2d translationError = referenceState.poseMeters.relativeTo(currentPose).getTranslation();
+        this.translationErrorX = translationError.getX();
+        this.translationErrorY = translationError.getY();
+        this.rotationErrorRadians = referenceState.holonomicRotation.minus(currentPose.getRotation()).getRadians();
 
 
         if (!this.isEnabled) {
@@ -114,4 +119,48 @@ public class PPHolonomicDriveController {
         return ChassisSpeeds.fromFieldRelativeSpeeds(xFF + xFeedback + poseFeedBackX, yFF + yFeedback + poseFeedBackY,
                 rotationFF + rotationFeedback, currentPose.getRotation());
     }
+
+    /**
+     * Calculates the next output of the holonomic drive controller without allocating. The output
+     * is written into the given ChassisSpeeds, which the caller should reuse between loops.
+     *
+     * @param currentPose The current pose
+     * @param referenceState The desired trajectory state
+     * @param output The robot relative speeds to write the output into
+     */
+    public void calculate(Pose2d currentPose, MutablePathPlannerState referenceState, ChassisSpeeds output) {
+        double currentX = currentPose.getX();
+        double currentY = currentPose.getY();
+        double currentRotation = currentPose.getRotation().getRadians();
+        double cos = currentPose.getRotation().getCos();
+        double sin = currentPose.getRotation().getSin();
+
+        double xFF = referenceState.velocityMetersPerSecond * Math.cos(referenceState.headingRadians);
+        double yFF = referenceState.velocityMetersPerSecond * Math.sin(referenceState.headingRadians);
+        double rotationFF = referenceState.holonomicAngularVelocityRadPerSec;
+
+        // Same as referencePose.relativeTo(currentPose).getTranslation()
+        double dx = referenceState.xMeters - currentX;
+        double dy = referenceState.yMeters - currentY;
+        this.translationErrorX = dx * cos + dy * sin;
+        this.translationErrorY = -dx * sin + dy * cos;
+        this.rotationErrorRadians = MathUtil.angleModulus(referenceState.holonomicRotationRadians - currentRotation);
+
+        double vx = xFF;
+        double vy = yFF;
+        double omega = rotationFF;
+
+        if (this.isEnabled) {
+            vx += this.xController.calculate(currentX, referenceState.xMeters);
+            vy += this.yController.calculate(currentY, referenceState.yMeters);
+            omega += this.rotationController.calculate(currentRotation, referenceState.holonomicRotationRadians);
+            vx += this.poseController.calculate(currentX, referenceState.xMeters);
+            vy += this.poseController.calculate(currentY, referenceState.yMeters);
+        }
+
+        // Same as ChassisSpeeds.fromFieldRelativeSpeeds
+        output.vxMetersPerSecond = vx * cos + vy * sin;
+        output.vyMetersPerSecond = -vx * sin + vy * cos;
+        output.omegaRadiansPerSecond = omega;
+    }
 }
@@ -0,0 +1,101 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring buffer of path following samples, for one producer thread and one consumer
+ * thread.
+ *
+ * Each sample is a time and the target and actual x, y and theta, stored as primitives in one
+ * preallocated array, so offering a sample from the robot loop never allocates or blocks. When the
+ * consumer falls behind and the buffer is full, new samples are dropped and counted.
+ */
+public class PathFollowingDataBuffer {
+    /** Doubles in each sample: time, target x, y, theta, actual x, y, theta */
+    public static final int FIELDS = 7;
+
+    private final double[] data;
+    private final int mask;
+
+    // Next sample to read, only moved by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next sample to write, only moved by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only written by the producer
+    private volatile long droppedSamples = 0;
+
+    /**
+     * Creates a PathFollowingDataBuffer
+     *
+     * @param capacity the number of samples to hold, rounded up to a power of two
+     */
+    public PathFollowingDataBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        data = new double[size * FIELDS];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a sample. Only call this from one thread.
+     *
+     * @return false if the buffer was full and the sample was dropped
+     */
+    public boolean offer(double time, double targetX, double targetY, double targetTheta,
+            double actualX, double actualY, double actualTheta) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            droppedSamples++;
+            return false;
+        }
+
+        int i = (int) (t & mask) * FIELDS;
+        data[i] = time;
+        data[i + 1] = targetX;
+        data[i + 2] = targetY;
+        data[i + 3] = targetTheta;
+        data[i + 4] = actualX;
+        data[i + 5] = actualY;
+        data[i + 6] = actualTheta;
+
+        // Publishes the sample to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Takes every sample in the buffer, oldest first. Only call this from one thread.
+     *
+     * @param out filled with {@link #FIELDS} doubles per sample, should hold {@link #capacity()}
+     *        samples
+     * @return the number of samples copied
+     */
+    public int drain(double[] out) {
+        long h = head.get();
+        long t = tail.get();
+        int count = (int) Math.min(t - h, out.length / FIELDS);
+
+        for (int n = 0; n < count; n++) {
+            int i = (int) ((h + n) & mask) * FIELDS;
+            System.arraycopy(data, i, out, n * FIELDS, FIELDS);
+        }
+
+        // Frees the slots for the producer
+        head.lazySet(h + count);
+        return count;
+    }
+
+    /**
+     * @return the number of samples the buffer can hold
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the number of samples dropped because the buffer was full
+     */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+}
@@ -0,0 +1,14 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
+
+/**
+ * Gets the latest path following sample each time the PathPlannerServer's sender runs, on the
+ * sender thread
+ */
+@FunctionalInterface
+public interface PathFollowingListener {
+    /**
+     * @param time seconds since the path started
+     */
+    void accept(double time, double targetX, double targetY, double targetTheta, double actualX,
+            double actualY, double actualTheta);
+}
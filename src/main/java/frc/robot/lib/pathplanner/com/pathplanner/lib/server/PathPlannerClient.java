@@ -0,0 +1,179 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * One connection to PathPlanner, read and written only by the server's selector thread.
+ *
+ * Messages are newline separated, unless the client switched to the binary framing in {@link
+ * PathPlannerProtocol}. Outgoing messages are queued by any thread with {@link
+ * #send(PathPlannerMessage)}, which never blocks: when the queue is full the oldest message is
+ * dropped, since a newer pathFollowingData makes the old one useless anyway.
+ */
+class PathPlannerClient {
+    // A line longer than this isn't from PathPlanner, so the client is dropped
+    private static final int MAX_LINE_BYTES = 4 * 1024 * 1024;
+
+    private static final PathPlannerMessage PONG = PathPlannerMessage.json("pong");
+
+    private final SocketChannel channel;
+    private final BiConsumer<PathPlannerClient, String> onMessageReceived;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(8192);
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private final ArrayBlockingQueue<ByteBuffer> outbound;
+    private ByteBuffer writing = null;
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    private long lastReceivedNanos = System.nanoTime();
+    private volatile boolean isAlive = true;
+    private volatile boolean isBinary = false;
+
+    PathPlannerClient(SocketChannel channel, int maxQueuedMessages,
+            BiConsumer<PathPlannerClient, String> onMessageReceived) {
+        this.channel = channel;
+        this.outbound = new ArrayBlockingQueue<>(maxQueuedMessages);
+        this.onMessageReceived = onMessageReceived;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    boolean isAlive() {
+        return isAlive;
+    }
+
+    long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    /**
+     * @return true if the client asked for the binary protocol
+     */
+    boolean isBinary() {
+        return isBinary;
+    }
+
+    /**
+     * Queues a message to be sent in the client's protocol, from any thread
+     */
+    synchronized void send(PathPlannerMessage message) {
+        enqueue(isBinary ? message.frame() : message.line());
+    }
+
+    /**
+     * Acknowledges the binary protocol with a JSON line and sends everything after it as frames
+     */
+    synchronized void switchToBinary() {
+        if (!isBinary) {
+            enqueue(PathPlannerMessage.json(PathPlannerServer.BINARY_PROTOCOL_ACK).line());
+            isBinary = true;
+        }
+    }
+
+    private void enqueue(byte[] message) {
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+        while (!outbound.offer(buffer)) {
+            if (outbound.poll() != null) {
+                droppedMessages.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return true if there is anything left to write
+     */
+    boolean hasPendingWrites() {
+        return writing != null || !outbound.isEmpty();
+    }
+
+    /**
+     * Reads everything available and handles each complete line
+     */
+    void read() throws IOException {
+        int count;
+        while ((count = channel.read(readBuffer)) > 0) {
+            lastReceivedNanos = System.nanoTime();
+            readBuffer.flip();
+
+            while (readBuffer.hasRemaining()) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    handleLine(new String(line.toByteArray(), StandardCharsets.UTF_8).trim());
+                    line.reset();
+                } else {
+                    line.write(b);
+                }
+            }
+
+            readBuffer.clear();
+            if (line.size() > MAX_LINE_BYTES) {
+                throw new IOException("PathPlanner message too long");
+            }
+        }
+
+        if (count < 0) {
+            // Client disconnected
+            close();
+        }
+    }
+
+    /**
+     * Writes as much of the queue as the socket will take without blocking
+     */
+    void write() throws IOException {
+        while (true) {
+            if (writing == null) {
+                writing = outbound.poll();
+                if (writing == null) {
+                    return;
+                }
+            }
+
+            channel.write(writing);
+            if (writing.hasRemaining()) {
+                // The socket buffer is full, carry on when it is writable again
+                return;
+            }
+            writing = null;
+        }
+    }
+
+    /**
+     * @return true if nothing has been received for longer than the timeout
+     */
+    boolean isIdle(long timeoutNanos) {
+        return System.nanoTime() - lastReceivedNanos > timeoutNanos;
+    }
+
+    void close() {
+        isAlive = false;
+        outbound.clear();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void handleLine(String message) {
+        if (message.isEmpty()) {
+            return;
+        }
+
+        if (message.equals("ping")) {
+            send(PONG);
+        } else {
+            onMessageReceived.accept(this, message);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * A message to send to clients, as a JSON line for old clients and a binary frame for clients that
+ * asked for the binary protocol. Each encoding is only built the first time a client needs it.
+ */
+final class PathPlannerMessage {
+    private final Supplier<String> json;
+    private final Supplier<byte[]> frame;
+
+    private byte[] lineBytes;
+    private byte[] frameBytes;
+
+    private PathPlannerMessage(Supplier<String> json, Supplier<byte[]> frame) {
+        this.json = json;
+        this.frame = frame;
+    }
+
+    /**
+     * A JSON message, sent to binary clients in a JSON frame
+     */
+    static PathPlannerMessage json(String text) {
+        return new PathPlannerMessage(() -> text, () -> PathPlannerProtocol
+                .frame(PathPlannerProtocol.TYPE_JSON, text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * A message with its own binary encoding
+     *
+     * @param json builds the JSON for line clients
+     * @param frame builds the whole frame for binary clients
+     */
+    static PathPlannerMessage of(Supplier<String> json, Supplier<byte[]> frame) {
+        return new PathPlannerMessage(json, frame);
+    }
+
+    /**
+     * @return the message as a newline terminated JSON line
+     */
+    synchronized byte[] line() {
+        if (lineBytes == null) {
+            lineBytes = (json.get() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+        return lineBytes;
+    }
+
+    /**
+     * @return the message as a binary frame
+     */
+    synchronized byte[] frame() {
+        if (frameBytes == null) {
+            frameBytes = frame.get();
+        }
+        return frameBytes;
+    }
+}
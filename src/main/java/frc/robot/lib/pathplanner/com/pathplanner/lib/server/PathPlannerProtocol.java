@@ -0,0 +1,102 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * The binary framing a client can ask for instead of JSON lines.
+ *
+ * A client sends {@code {"command":"binaryProtocol","version":1}} and the server answers with the
+ * same JSON line, after which everything the server sends that client is a frame: a 4 byte big
+ * endian length, then a type byte and the payload, with the length counting both. Messages to the
+ * server stay JSON lines.
+ *
+ * <ul>
+ * <li>{@link #TYPE_JSON}: a UTF-8 JSON message, the same as a line would have been, including pong
+ * <li>{@link #TYPE_ACTIVE_PATH}: every state of the path, a u32 count, then the first x and y as
+ * i32 millimeters, then the change in x and y from the state before as zigzag varint millimeters
+ * <li>{@link #TYPE_PATH_FOLLOWING_DATA}: every sample since the last frame, a u16 count, then per
+ * sample time, target x, y, theta, actual x, y, theta as float32, with a NaN time when the
+ * sample wasn't sent from a following command
+ * </ul>
+ */
+final class PathPlannerProtocol {
+    static final int VERSION = 1;
+
+    static final byte TYPE_JSON = 1;
+    static final byte TYPE_ACTIVE_PATH = 2;
+    static final byte TYPE_PATH_FOLLOWING_DATA = 3;
+
+    private PathPlannerProtocol() {}
+
+    /**
+     * @return the frame for a payload
+     */
+    static byte[] frame(byte type, byte[] payload) {
+        return ByteBuffer.allocate(5 + payload.length).putInt(1 + payload.length).put(type)
+                .put(payload).array();
+    }
+
+    static byte[] encodeActivePath(List<Trajectory.State> states) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(12 + states.size() * 2);
+        writeInt(out, states.size());
+
+        long lastX = 0;
+        long lastY = 0;
+        for (int i = 0; i < states.size(); i++) {
+            long x = Math.round(states.get(i).poseMeters.getX() * 1000.0);
+            long y = Math.round(states.get(i).poseMeters.getY() * 1000.0);
+
+            if (i == 0) {
+                writeInt(out, (int) x);
+                writeInt(out, (int) y);
+            } else {
+                // Deltas from the rounded last point, so rounding error doesn't add up
+                writeVarint(out, zigzag(x - lastX));
+                writeVarint(out, zigzag(y - lastY));
+            }
+
+            lastX = x;
+            lastY = y;
+        }
+
+        return frame(TYPE_ACTIVE_PATH, out.toByteArray());
+    }
+
+    /**
+     * @param samples {@link PathFollowingDataBuffer#FIELDS} doubles per sample
+     * @param count the number of samples
+     */
+    static byte[] encodePathFollowingData(double[] samples, int count) {
+        int fields = PathFollowingDataBuffer.FIELDS;
+        ByteBuffer buffer = ByteBuffer.allocate(5 + 2 + count * fields * Float.BYTES);
+        buffer.putInt(buffer.capacity() - 4).put(TYPE_PATH_FOLLOWING_DATA).putShort((short) count);
+
+        for (int i = 0; i < count * fields; i++) {
+            buffer.putFloat((float) samples[i]);
+        }
+
+        return buffer.array();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
@@ -3,63 +3,308 @@ package frc.robot.lib.pathplanner.com.pathplanner.lib.server;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.Filesystem;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import frc.robot.lib.pathplanner.org.json.simple.JSONArray;
 import frc.robot.lib.pathplanner.org.json.simple.JSONObject;
 import frc.robot.lib.pathplanner.org.json.simple.parser.JSONParser;
 import frc.robot.lib.pathplanner.org.json.simple.parser.ParseException;
 
+/**
+ * Talks to the PathPlanner app over TCP.
+ *
+ * Every client is handled by one selector thread with non-blocking sockets, so the number of
+ * threads doesn't grow with clients. Sending only queues the message for each client and wakes the
+ * selector, so a slow or dead laptop can never block the robot loop. Each client's queue is bounded
+ * and drops its oldest message when full, and clients that send nothing (PathPlanner pings every
+ * few seconds) for {@link #IDLE_TIMEOUT_SECONDS} are disconnected.
+ *
+ * Path following data is offered by the robot loop as primitives into a lock-free ring buffer. A
+ * background sender drains it at {@link #setPathFollowingDataRate(double) a set rate} and sends
+ * the newest sample of each batch to JSON clients and the {@link PathFollowingListener}, so the loop
+ * never builds JSON.
+ *
+ * Clients can ask for the binary framing in {@link PathPlannerProtocol} instead of JSON lines. They
+ * get every state of the active path instead of 1 in 10, and every path following sample of each
+ * batch, in a fraction of the bytes.
+ *
+ * Paths sent with updatePath are written atomically, so nothing ever loads a half written file, and
+ * then passed to the {@link #setPathUpdateListener(Consumer) path update listener}.
+ */
 public class PathPlannerServer {
+    public static final double IDLE_TIMEOUT_SECONDS = 10;
+    public static final int MAX_QUEUED_MESSAGES = 64;
+    public static final double DEFAULT_PATH_FOLLOWING_RATE = 20;
+
+    // Sent by a client to ask for the binary protocol, and sent back to confirm it
+    static final String BINARY_PROTOCOL_ACK =
+            "{\"command\":\"binaryProtocol\",\"version\":" + PathPlannerProtocol.VERSION + "}";
+
+    private static final PathFollowingDataBuffer pathFollowingData = new PathFollowingDataBuffer(128);
+    private static volatile long pathFollowingPeriodNanos =
+            (long) (1e9 / DEFAULT_PATH_FOLLOWING_RATE);
+    private static volatile PathFollowingListener pathFollowingListener = null;
+    private static volatile boolean isSenderRunning = false;
+    // Only written by the sender thread
+    private static volatile long coalescedSamples = 0;
+
+    private static volatile Consumer<String> pathUpdateListener = null;
+
     private static volatile boolean isRunning = false;
-    private static List<PathPlannerServerThread> clients =
-            Collections.synchronizedList(new ArrayList<>());
+    private static volatile Selector selector;
+    private static final List<PathPlannerClient> clients = new CopyOnWriteArrayList<>();
 
-    public static void startServer(int serverPort) {
+    public static synchronized void startServer(int serverPort) {
         if (!isRunning) {
-            new Thread(() -> {
-                try (ServerSocket serverSocket = new ServerSocket(serverPort)) {
-                    isRunning = true;
-
-                    while (true) {
-                        Socket socket = serverSocket.accept();
-                        synchronized (clients) {
-                            clients.add(new PathPlannerServerThread(socket,
-                                    PathPlannerServer::handleMessage));
-                            clients.get(clients.size() - 1).start();
-                        }
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
+            try {
+                selector = Selector.open();
+                ServerSocketChannel serverChannel = ServerSocketChannel.open();
+                serverChannel.bind(new InetSocketAddress(serverPort));
+                serverChannel.configureBlocking(false);
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+                isRunning = true;
+
+                Thread thread = new Thread(() -> run(serverChannel), "PathPlannerServer");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Check if any PathPlanner clients are connected, so callers can skip building messages that
+     * nobody will receive
+     *
+     * @return True if at least one client is connected
+     */
+    public static boolean hasClients() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Sets what is told when PathPlanner updates a path file
+     *
+     * @param listener given the name of the path without the extension, called on the server
+     *        thread after the file is written, so it should return quickly, or null for nothing
+     */
+    public static void setPathUpdateListener(Consumer<String> listener) {
+        pathUpdateListener = listener;
+    }
+
+    /**
+     * @return the total number of messages dropped because a client's queue was full
+     */
+    public static long getDroppedMessages() {
+        long dropped = 0;
+        for (PathPlannerClient client : clients) {
+            dropped += client.getDroppedMessages();
+        }
+        return dropped;
+    }
+
+    /**
+     * Offers a path following sample to be sent in the background. Never blocks or allocates, so
+     * it can be called from the robot loop, but only ever from one thread.
+     *
+     * @param time seconds since the path started
+     */
+    public static void offerPathFollowingData(double time, double targetX, double targetY,
+            double targetTheta, double actualX, double actualY, double actualTheta) {
+        if (!isSenderRunning) {
+            startSender();
+        }
+
+        pathFollowingData.offer(time, targetX, targetY, targetTheta, actualX, actualY, actualTheta);
+    }
+
+    /**
+     * Sets how often offered path following data is sent
+     *
+     * @param hz sends per second
+     */
+    public static void setPathFollowingDataRate(double hz) {
+        pathFollowingPeriodNanos = (long) (1e9 / hz);
+    }
+
+    /**
+     * Sets what gets the newest path following sample each time the sender runs
+     *
+     * @param listener called on the sender thread, or null for nothing
+     */
+    public static void setPathFollowingListener(PathFollowingListener listener) {
+        pathFollowingListener = listener;
+    }
+
+    /**
+     * @return the number of path following samples dropped because the sender fell behind
+     */
+    public static long getPathFollowingSamplesDropped() {
+        return pathFollowingData.getDroppedSamples();
+    }
+
+    /**
+     * @return the number of path following samples JSON clients didn't get because a newer one was
+     *         sent instead
+     */
+    public static long getPathFollowingSamplesCoalesced() {
+        return coalescedSamples;
+    }
+
+    private static synchronized void startSender() {
+        if (!isSenderRunning) {
+            Thread thread = new Thread(PathPlannerServer::runSender, "PathPlannerSender");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+            isSenderRunning = true;
+        }
+    }
+
+    private static void runSender() {
+        double[] samples = new double[pathFollowingData.capacity() * PathFollowingDataBuffer.FIELDS];
+
+        while (true) {
+            try {
+                int count = pathFollowingData.drain(samples);
+                if (count > 0) {
+                    coalescedSamples += count - 1;
+                    sendSamples(samples, count);
                 }
-            }).start();
+
+                TimeUnit.NANOSECONDS.sleep(pathFollowingPeriodNanos);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // Don't stop sending because of one bad sample or listener
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void sendSamples(double[] samples, int count) {
+        if (hasClients()) {
+            sendPathFollowingData(samples, count);
+        }
+
+        int i = (count - 1) * PathFollowingDataBuffer.FIELDS;
+        PathFollowingListener listener = pathFollowingListener;
+        if (listener != null) {
+            listener.accept(samples[i], samples[i + 1], samples[i + 2], samples[i + 3],
+                    samples[i + 4], samples[i + 5], samples[i + 6]);
         }
     }
 
-    private static void sendToClients(String message) {
-        synchronized (clients) {
-            // This try/catch block is here just in case I missed any multithreading shenanigans
-            // So, instead of crashing it will just not send the message
+    private static void run(ServerSocketChannel serverChannel) {
+        long idleTimeoutNanos = (long) (IDLE_TIMEOUT_SECONDS * 1e9);
+
+        while (true) {
             try {
-                clients.removeIf(client -> !client.isAlive);
+                // Wake up at least once a second to check for idle clients
+                selector.select(TimeUnit.SECONDS.toMillis(1));
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid()) {
+                        continue;
+                    }
 
-                for (PathPlannerServerThread client : clients) {
-                    client.sendMessage(message);
+                    if (key.isAcceptable()) {
+                        accept(serverChannel);
+                        continue;
+                    }
+
+                    PathPlannerClient client = (PathPlannerClient) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            client.read();
+                        }
+                        if (client.isAlive() && key.isWritable()) {
+                            client.write();
+                        }
+                    } catch (IOException e) {
+                        // Connection ended
+                        client.close();
+                    }
+                }
+
+                for (PathPlannerClient client : clients) {
+                    if (client.isAlive() && client.isIdle(idleTimeoutNanos)) {
+                        client.close();
+                    }
+
+                    if (!client.isAlive()) {
+                        clients.remove(client);
+                        continue;
+                    }
+
+                    // Only ask to write when there is something to write, or the selector spins
+                    SelectionKey key = client.getChannel().keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        key.interestOps(client.hasPendingWrites()
+                                ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                                : SelectionKey.OP_READ);
+                    }
                 }
             } catch (Exception e) {
-                // do nothing
+                // Keep serving the other clients if one of them does something unexpected
+                e.printStackTrace();
             }
         }
     }
 
-    private static synchronized void handleMessage(String message) {
+    private static void accept(ServerSocketChannel serverChannel) throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+
+        PathPlannerClient client =
+                new PathPlannerClient(channel, MAX_QUEUED_MESSAGES, PathPlannerServer::handleMessage);
+        channel.register(selector, SelectionKey.OP_READ, client);
+        clients.add(client);
+    }
+
+    private static void sendToClients(PathPlannerMessage message) {
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        // Each encoding is built once and shared, each client gets its own buffer position
+        for (PathPlannerClient client : clients) {
+            client.send(message);
+        }
+
+        // The selector thread picks up the new messages and starts writing
+        Selector current = selector;
+        if (current != null) {
+            current.wakeup();
+        }
+    }
+
+    private static synchronized void handleMessage(PathPlannerClient client, String message) {
         // Non ping-pong messages are sent in json format
         try {
             JSONObject json = (JSONObject) new JSONParser().parse(message);
@@ -71,14 +316,19 @@ public class PathPlannerServer {
                     String pathName = (String) json.get("pathName");
                     String fileContent = (String) json.get("fileContent");
 
-                    File pathFile = new File(Filesystem.getDeployDirectory(),
-                            "pathplanner/" + pathName + ".path");
-
-                    try (BufferedWriter writer = new BufferedWriter(new FileWriter(pathFile))) {
-                        writer.write(fileContent);
-                        writer.flush();
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                    if (writePathFile(pathName, fileContent)) {
+                        Consumer<String> listener = pathUpdateListener;
+                        if (listener != null) {
+                            listener.accept(pathName);
+                        }
+                    }
+                    break;
+                case "binaryProtocol":
+                    Object version = json.get("version");
+                    // A client asking for a version we don't know keeps getting JSON lines
+                    if (version instanceof Number
+                            && ((Number) version).intValue() == PathPlannerProtocol.VERSION) {
+                        client.switchToBinary();
                     }
                     break;
                 default:
@@ -90,7 +340,47 @@ public class PathPlannerServer {
         }
     }
 
+    /**
+     * Writes to a temporary file and moves it over the path file, so a path being loaded at the
+     * same time sees either the old file or the new one
+     *
+     * @return true if the file was written
+     */
+    private static boolean writePathFile(String pathName, String fileContent) {
+        Path dir = new File(Filesystem.getDeployDirectory(), "pathplanner").toPath();
+        Path pathFile = dir.resolve(pathName + ".path");
+        Path tempFile = dir.resolve(pathName + ".path.tmp");
+
+        try {
+            Files.write(tempFile, fileContent.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tempFile, pathFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, pathFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException deleteError) {
+                deleteError.printStackTrace();
+            }
+            return false;
+        }
+    }
+
     public static void sendActivePath(List<Trajectory.State> states) {
+        if (!hasClients()) {
+            return;
+        }
+
+        sendToClients(PathPlannerMessage.of(() -> activePathJson(states),
+                () -> PathPlannerProtocol.encodeActivePath(states)));
+    }
+
+    private static String activePathJson(List<Trajectory.State> states) {
         JSONObject json = new JSONObject();
 
         json.put("command", "activePath");
@@ -117,26 +407,51 @@ public class PathPlannerServer {
 
         json.put("states", statesJson);
 
-        sendToClients(json.toJSONString());
+        return json.toJSONString();
     }
 
+    /**
+     * Sends path following data right away, on the calling thread. From the robot loop, use {@link
+     * #offerPathFollowingData} instead.
+     */
     public static void sendPathFollowingData(Pose2d targetPose, Pose2d actualPose) {
+        // No path time here, binary clients get NaN
+        double[] sample = {Double.NaN, targetPose.getX(), targetPose.getY(),
+                targetPose.getRotation().getRadians(), actualPose.getX(), actualPose.getY(),
+                actualPose.getRotation().getRadians()};
+        sendPathFollowingData(sample, 1);
+    }
+
+    /**
+     * JSON clients get the last sample, binary clients get all of them. Everything is encoded
+     * before this returns, so the array can be reused.
+     */
+    private static void sendPathFollowingData(double[] samples, int count) {
+        int i = (count - 1) * PathFollowingDataBuffer.FIELDS;
+        sendToClients(PathPlannerMessage.of(
+                () -> pathFollowingDataJson(samples[i + 1], samples[i + 2], samples[i + 3],
+                        samples[i + 4], samples[i + 5], samples[i + 6]),
+                () -> PathPlannerProtocol.encodePathFollowingData(samples, count)));
+    }
+
+    private static String pathFollowingDataJson(double targetX, double targetY,
+            double targetTheta, double actualX, double actualY, double actualTheta) {
         JSONObject json = new JSONObject();
 
         json.put("command", "pathFollowingData");
 
         JSONObject targetPoseJson = new JSONObject();
-        targetPoseJson.put("x", targetPose.getX());
-        targetPoseJson.put("y", targetPose.getY());
-        targetPoseJson.put("theta", targetPose.getRotation().getRadians());
+        targetPoseJson.put("x", targetX);
+        targetPoseJson.put("y", targetY);
+        targetPoseJson.put("theta", targetTheta);
         json.put("targetPose", targetPoseJson);
 
         JSONObject actualPoseJson = new JSONObject();
-        actualPoseJson.put("x", actualPose.getX());
-        actualPoseJson.put("y", actualPose.getY());
-        actualPoseJson.put("theta", actualPose.getRotation().getRadians());
+        actualPoseJson.put("x", actualX);
+        actualPoseJson.put("y", actualY);
+        actualPoseJson.put("theta", actualTheta);
         json.put("actualPose", actualPoseJson);
 
-        sendToClients(json.toJSONString());
+        return json.toJSONString();
     }
 }
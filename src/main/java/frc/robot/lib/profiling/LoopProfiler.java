@@ -0,0 +1,190 @@
+package frc.robot.lib.profiling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Breaks the robot loop down into timed phases so a loop overrun can be traced
+ * back to the subsystem, command or priority loop that caused it.
+ *
+ * {@link frc.robot.lib.LightningRobot} times the loop, each priority loop,
+ * the scheduler and the dashboard updates. Once {@link #install()} is called
+ * the scheduler is split into subsystem periodics and each command's execute.
+ * Anything else can be timed with {@link #getTimer(String)}.
+ *
+ * Stats are published under the Profiler table in NetworkTables and the
+ * DataLog, one phase per loop so the cost is spread out. Every overrun is
+ * logged with the phases that took over a millisecond in that loop.
+ */
+public class LoopProfiler {
+
+    private static final double OVERRUN_PHASE_MILLIS = 1.0;
+
+    private static final HashMap<String, LoopTimer> timers = new HashMap<>();
+    private static final ArrayList<LoopTimer> timerList = new ArrayList<>();
+
+    // Commands are looked up by their own name so the lookup doesn't build a string
+    private static final HashMap<String, LoopTimer> commandTimers = new HashMap<>();
+
+    private static final LoopTimer loopTimer = getTimer("Loop");
+    private static final LoopTimer subsystemsTimer = getTimer("Scheduler/Subsystems");
+
+    private static int loopCount = 0;
+    private static int publishIndex = 0;
+    private static long lastMark = 0;
+    private static long overruns = 0;
+
+    private static NetworkTable table;
+    private static DataLog log;
+    private static IntegerPublisher overrunPublisher;
+    private static StringPublisher lastOverrunPublisher;
+    private static StringLogEntry overrunLog;
+
+    private LoopProfiler() {}
+
+    /**
+     * Gets the timer for a phase, making it if needed
+     *
+     * @param name name of the phase, use / to group phases
+     * @return the timer for the phase
+     */
+    public static LoopTimer getTimer(String name) {
+        return getTimer(name, true);
+    }
+
+    /**
+     * Gets the timer for a phase that runs off of the main thread, making it if
+     * needed. It is left out of overrun reports since it can't delay the loop.
+     * Durations must still be recorded on the main thread, see
+     * {@link frc.robot.lib.LightningRobot#runOnMainThread(Runnable)}.
+     *
+     * @param name name of the phase, use / to group phases
+     * @return the timer for the phase
+     */
+    public static LoopTimer getBackgroundTimer(String name) {
+        return getTimer(name, false);
+    }
+
+    private static LoopTimer getTimer(String name, boolean mainThread) {
+        LoopTimer timer = timers.get(name);
+        if (timer == null) {
+            timer = new LoopTimer(name, mainThread);
+            timers.put(name, timer);
+            timerList.add(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Hooks into the command scheduler to time subsystem periodics and each
+     * command's execute, and opens the NetworkTables and DataLog outputs.
+     * Should be called once from robotInit after the DataLog is started and
+     * the button bindings are made.
+     */
+    public static void install() {
+        table = NetworkTableInstance.getDefault().getTable("Profiler");
+        log = DataLogManager.getLog();
+        overrunPublisher = table.getIntegerTopic("Overruns").publish();
+        lastOverrunPublisher = table.getStringTopic("LastOverrun").publish();
+        overrunLog = new StringLogEntry(log, "Profiler/Overruns");
+
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+
+        // The button loop is polled between the subsystem periodics and the
+        // commands. Bound last, so the subsystems phase includes trigger polling
+        scheduler.getDefaultButtonLoop().bind(() -> {
+            subsystemsTimer.stop();
+            lastMark = System.nanoTime();
+        });
+
+        // Runs right after each command's execute, so the time since the last
+        // mark is that command's execute
+        scheduler.onCommandExecute(LoopProfiler::recordCommand);
+    }
+
+    /**
+     * Marks the start of the scheduler run
+     */
+    public static void startScheduler() {
+        subsystemsTimer.start();
+    }
+
+    /**
+     * Marks the start of a robot loop
+     */
+    public static void startLoop() {
+        loopCount++;
+        loopTimer.start();
+    }
+
+    /**
+     * Marks the end of a robot loop, reports it if it overran and publishes the
+     * stats for the next phase
+     *
+     * @param periodSeconds the loop period
+     */
+    public static void endLoop(double periodSeconds) {
+        loopTimer.stop();
+
+        if (loopTimer.getLastMillis() > periodSeconds * 1000) {
+            reportOverrun();
+        }
+
+        if (table != null && !timerList.isEmpty()) {
+            publishIndex = (publishIndex + 1) % timerList.size();
+            timerList.get(publishIndex).publish(table, log);
+        }
+    }
+
+    /**
+     * @return the number of loops run, used to tell which timers ran this loop
+     */
+    static int getLoopCount() {
+        return loopCount;
+    }
+
+    private static void recordCommand(Command command) {
+        long now = System.nanoTime();
+
+        String name = command.getName();
+        LoopTimer timer = commandTimers.get(name);
+        if (timer == null) {
+            timer = getTimer("Commands/" + name);
+            commandTimers.put(name, timer);
+        }
+
+        timer.record(now - lastMark);
+        lastMark = now;
+    }
+
+    private static void reportOverrun() {
+        overruns++;
+
+        StringBuilder message = new StringBuilder();
+        message.append(String.format("Loop overrun %.1f ms:", loopTimer.getLastMillis()));
+        for (LoopTimer timer : timerList) {
+            long nanos = timer.getNanosThisLoop();
+            if (timer != loopTimer && nanos > OVERRUN_PHASE_MILLIS * 1e6) {
+                message.append(String.format(" %s %.1f ms,", timer.getName(), nanos / 1e6));
+            }
+        }
+        message.setLength(message.length() - 1);
+
+        if (table != null) {
+            String overrun = message.toString();
+            overrunPublisher.set(overruns);
+            lastOverrunPublisher.set(overrun);
+            overrunLog.append(overrun);
+        }
+    }
+}
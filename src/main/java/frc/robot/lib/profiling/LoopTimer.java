@@ -0,0 +1,138 @@
+package frc.robot.lib.profiling;
+
+import java.util.Arrays;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+
+/**
+ * Times one phase of the robot loop.
+ *
+ * Every duration goes into a fixed size ring buffer, so recording never
+ * allocates. {@link LoopProfiler} publishes the p50, p99 and max of one
+ * timer at the end of each loop, taking turns, so each timer is refreshed
+ * once every N loops for N timers. Timers are only used from the main robot
+ * thread.
+ */
+public class LoopTimer {
+
+    // Enough for the last ~5 seconds of a 20ms loop
+    static final int SIZE = 256;
+
+    private final String name;
+    private final boolean mainThread;
+
+    private final long[] samples = new long[SIZE];
+    private final long[] sorted = new long[SIZE];
+    private int count = 0;
+    private int next = 0;
+
+    private long startTime = 0;
+    private long lastNanos = 0;
+    private int lastLoop = -1;
+
+    private DoublePublisher p50Publisher;
+    private DoublePublisher p99Publisher;
+    private DoublePublisher maxPublisher;
+    private DoubleLogEntry p50Log;
+    private DoubleLogEntry p99Log;
+    private DoubleLogEntry maxLog;
+
+    LoopTimer(String name, boolean mainThread) {
+        this.name = name;
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * @return the name of the phase this times
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks the start of the phase
+     */
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the phase and records the time since {@link #start()}
+     */
+    public void stop() {
+        record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Records one duration of the phase
+     *
+     * @param nanos how long the phase took in nanoseconds
+     */
+    public void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SIZE;
+        if (count < SIZE) {
+            count++;
+        }
+
+        lastNanos = nanos;
+        lastLoop = LoopProfiler.getLoopCount();
+    }
+
+    /**
+     * @return the most recent duration in milliseconds
+     */
+    public double getLastMillis() {
+        return lastNanos / 1e6;
+    }
+
+    /**
+     * @return the most recent duration in nanoseconds, or 0 if the phase did not
+     *         run in the current loop or does not run on the main thread
+     */
+    long getNanosThisLoop() {
+        return mainThread && lastLoop == LoopProfiler.getLoopCount() ? lastNanos : 0;
+    }
+
+    /**
+     * Publishes the p50, p99 and max of the buffer to NetworkTables and the
+     * DataLog. The publishers are made the first time, so phases that never run
+     * never show up.
+     */
+    void publish(NetworkTable table, DataLog log) {
+        if (count == 0) {
+            return;
+        }
+
+        if (p50Publisher == null) {
+            NetworkTable subTable = table.getSubTable(name);
+            p50Publisher = subTable.getDoubleTopic("p50").publish();
+            p99Publisher = subTable.getDoubleTopic("p99").publish();
+            maxPublisher = subTable.getDoubleTopic("max").publish();
+            if (log != null) {
+                p50Log = new DoubleLogEntry(log, "Profiler/" + name + "/p50", "ms");
+                p99Log = new DoubleLogEntry(log, "Profiler/" + name + "/p99", "ms");
+                maxLog = new DoubleLogEntry(log, "Profiler/" + name + "/max", "ms");
+            }
+        }
+
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+
+        double p50 = sorted[(count - 1) / 2] / 1e6;
+        double p99 = sorted[(int) ((count - 1) * 0.99)] / 1e6;
+        double max = sorted[count - 1] / 1e6;
+
+        p50Publisher.set(p50);
+        p99Publisher.set(p99);
+        maxPublisher.set(max);
+        if (p50Log != null) {
+            p50Log.append(p50);
+            p99Log.append(p99);
+            maxLog.append(max);
+        }
+    }
+}
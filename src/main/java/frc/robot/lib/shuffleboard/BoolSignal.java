@@ -0,0 +1,33 @@
+package frc.robot.lib.shuffleboard;
+
+import java.util.function.BooleanSupplier;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+
+/**
+ * A boolean published by a {@link TelemetryPublisher}
+ */
+public class BoolSignal extends TelemetrySignal {
+    private final BooleanSupplier value;
+    private BooleanPublisher publisher;
+
+    public BoolSignal(String key, BooleanSupplier value, double period) {
+        super(key, period);
+        this.value = value;
+    }
+
+    public BoolSignal(String key, BooleanSupplier value) {
+        this(key, value, Double.NaN);
+    }
+
+    @Override
+    void bind(NetworkTable table) {
+        publisher = table.getBooleanTopic(getKey()).publish();
+    }
+
+    @Override
+    void publish() {
+        publisher.set(value.getAsBoolean());
+    }
+}
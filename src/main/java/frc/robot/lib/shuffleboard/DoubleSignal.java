@@ -0,0 +1,33 @@
+package frc.robot.lib.shuffleboard;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+
+/**
+ * A number published by a {@link TelemetryPublisher}
+ */
+public class DoubleSignal extends TelemetrySignal {
+    private final DoubleSupplier value;
+    private DoublePublisher publisher;
+
+    public DoubleSignal(String key, DoubleSupplier value, double period) {
+        super(key, period);
+        this.value = value;
+    }
+
+    public DoubleSignal(String key, DoubleSupplier value) {
+        this(key, value, Double.NaN);
+    }
+
+    @Override
+    void bind(NetworkTable table) {
+        publisher = table.getDoubleTopic(getKey()).publish();
+    }
+
+    @Override
+    void publish() {
+        publisher.set(value.getAsDouble());
+    }
+}
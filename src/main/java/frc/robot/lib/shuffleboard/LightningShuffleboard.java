@@ -1,272 +1,140 @@
 package frc.robot.lib.shuffleboard;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 import org.apache.commons.lang3.ArrayUtils;
+import edu.wpi.first.networktables.GenericEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 
+/**
+ * Writes and reads shuffleboard values by tab and key, creating the component
+ * the first time a key is used.
+ *
+ * The entry for each (tab, key) is resolved once and cached, so calling these
+ * every loop is a hash lookup and a set, with no allocation.
+ */
 public class LightningShuffleboard {
-    public static void setDouble(String tabName, String key, double value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+    // Entries for components with a value, by tab then key
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, GenericEntry>> entries = new ConcurrentHashMap<>();
 
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
+    // Components that update themselves from a supplier or sendable, by tab then key
+    private static final ConcurrentHashMap<String, Set<String>> components = new ConcurrentHashMap<>();
 
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setDouble(value);
+    public static void setDouble(String tabName, String key, double value) {
+        // if the component exists, write to it, and if not, create the component
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry != null) {
+            entry.setDouble(value);
         } else {
-            tab.add(key, value);
+            addEntry(tabName, key, value, true);
         }
     }
 
     public static void setDoubleSupplier(String tabName, String key, DoubleSupplier value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
         // if the component doesnt exist, create it (since its a supplier, it will be updated
         // automatically)
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.addDouble(key, value);
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addDouble(key, value);
         }
     }
 
     public static double getDouble(String tabName, String key, double defaultValue) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // if the target exists, write to it using NTs, and if not, create the component
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, get it using the NetworkTable, and if not, create the component
-        if (hasComponent) {
-            return NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getDouble(defaultValue);
-        } else {
-            tab.add(key, defaultValue);
-            return defaultValue;
+        // if the component exists, read from it, and if not, create the component with the default
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry == null) {
+            entry = addEntry(tabName, key, defaultValue, false);
         }
+        return entry.getDouble(defaultValue);
     }
 
     public static void setString(String tabName, String key, String value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setString(value);
+        // if the component exists, write to it, and if not, create the component
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry != null) {
+            entry.setString(value);
         } else {
-            tab.add(key, value);
+            addEntry(tabName, key, value, true);
         }
     }
 
     public static String getString(String tabName, String key, String defaultValue) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // if the target exists, write to it using NTs, and if not, create the component
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, get it using the NetworkTable, and if not, create the component
-        if (hasComponent) {
-            return NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getString(defaultValue);
-        } else {
-            tab.add(key, defaultValue);
-            return defaultValue;
+        // if the component exists, read from it, and if not, create the component with the default
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry == null) {
+            entry = addEntry(tabName, key, defaultValue, false);
         }
+        return entry.getString(defaultValue);
     }
 
     public static void setBool(String tabName, String key, boolean value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setBoolean(value);
+        // if the component exists, write to it, and if not, create the component
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry != null) {
+            entry.setBoolean(value);
         } else {
-            tab.add(key, value);
+            addEntry(tabName, key, value, true);
         }
     }
 
     public static void setBoolSupplier(String tabName, String key, BooleanSupplier value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
         // if the component doesnt exist, create it (since its a supplier, it will be updated
         // automatically)
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.addBoolean(key, value);
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addBoolean(key, value);
         }
     }
 
     public static boolean getBool(String tabName, String key, boolean defaultValue) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // if the target exists, write to it using NTs, and if not, create the component
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, get it using the NetworkTable, and if not, create the component
-        if (hasComponent) {
-            return NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getBoolean(defaultValue);
-        } else {
-            tab.add(key, defaultValue);
-            return defaultValue;
+        // if the component exists, read from it, and if not, create the component with the default
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry == null) {
+            entry = addEntry(tabName, key, defaultValue, false);
         }
+        return entry.getBoolean(defaultValue);
     }
 
     public static void setStringArray(String tabName, String key, Supplier<String[]> value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.addStringArray(key, value);
+        // if the component doesnt exist, create it (since its a supplier, it will be updated
+        // automatically)
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addStringArray(key, value);
         }
     }
 
     public static void setDoubleArray(String tabName, String key, Supplier<double[]> value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.addDoubleArray(key, value);
+        // if the component doesnt exist, create it (since its a supplier, it will be updated
+        // automatically)
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addDoubleArray(key, value);
         }
     }
 
     public static void set(String tabName, String key, Sendable value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component doesnt exist, create it (since its a supplier, it will be updated
+        // if the component doesnt exist, create it (since its a sendable, it will be updated
         // automatically)
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.add(key, value);
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).add(key, value);
         }
     }
 
     public static void set(String tabName, String key, Object value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
-        }
-
-        // if the component doesnt exist, create it (since its a supplier, it will be updated
-        // automatically)
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.add(key, value);
+        // if the component doesnt exist, create it
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).add(key, value);
         }
     }
 
     /**
      * Creates a graph on the shuffleboard, still requires you to set the output as a graph on the
      * shuffleboard
-     * 
+     *
      * @param tabName
      * @param key
      * @param targetValue
@@ -277,65 +145,113 @@ public class LightningShuffleboard {
         double[] value = {targetValue};
         value = ArrayUtils.addAll(value, currentValue);
 
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+        // if the component exists, write to it, and if not, create the component
+        GenericEntry entry = getEntry(tabName, key);
+        if (entry != null) {
+            entry.setDoubleArray(value);
+        } else {
+            addEntry(tabName, key, value, true);
+        }
+    }
 
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
-            }
+    public static void setBoolArray(String tabName, String key, Supplier<boolean[]> value) {
+        // if the component doesnt exist, create it (since its a supplier, it will be updated
+        // automatically)
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addBooleanArray(key, value);
         }
+    }
 
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setDoubleArray(value);
-        } else {
-            tab.add(key, value);
+    public static void setStringSupplier(String tabName, String key, Supplier<String> value) {
+        // if the component doesnt exist, create it (since its a supplier, it will be updated
+        // automatically)
+        if (addComponent(tabName, key)) {
+            Shuffleboard.getTab(tabName).addString(key, value);
         }
     }
 
-    public static void setBoolArray(String tabName, String key, Supplier<boolean[]> value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+    /**
+     * Gets the cached entry for a component
+     *
+     * @return the entry, or null if this class hasn't used the key yet
+     */
+    private static GenericEntry getEntry(String tabName, String key) {
+        ConcurrentHashMap<String, GenericEntry> tabEntries = entries.get(tabName);
+        return tabEntries != null ? tabEntries.get(key) : null;
+    }
 
-        // iterate through the components in the tab, check if the component exists
-        for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
+    /**
+     * Creates a component with a starting value and caches its entry. If the
+     * component was already made somewhere else, its entry is cached as is,
+     * and only written through NetworkTables when overwrite is true, so reads
+     * keep a value set on the dashboard.
+     *
+     * @return the cached entry
+     */
+    private static synchronized GenericEntry addEntry(String tabName, String key, Object value, boolean overwrite) {
+        ConcurrentHashMap<String, GenericEntry> tabEntries = entries.computeIfAbsent(tabName, name -> new ConcurrentHashMap<>());
+        GenericEntry entry = tabEntries.get(key);
+        if (entry != null) {
+            if (overwrite) {
+                setValue(entry, value);
             }
+            return entry;
         }
 
-        // if the component exists, write to it using the NetworkTable, and if not, create the
-        // component
-        if (hasComponent) {
-            // do nothing
+        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+        if (hasComponent(tab, key)) {
+            entry = NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getTopic(key).getGenericEntry();
+            if (overwrite) {
+                setValue(entry, value);
+            }
         } else {
-            tab.addBooleanArray(key, value);
+            entry = tab.add(key, value).getEntry();
         }
+        tabEntries.put(key, entry);
+        return entry;
     }
 
-    public static void setStringSupplier(String tabName, String key, Supplier<String> value) {
-        boolean hasComponent = false;
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+    /**
+     * Marks a component as made
+     *
+     * @return true if the component still needs to be added to the tab
+     */
+    private static boolean addComponent(String tabName, String key) {
+        Set<String> tabComponents = components.get(tabName);
+        if (tabComponents != null && tabComponents.contains(key)) {
+            return false;
+        }
+
+        synchronized (LightningShuffleboard.class) {
+            tabComponents = components.computeIfAbsent(tabName, name -> ConcurrentHashMap.newKeySet());
+            if (!tabComponents.add(key)) {
+                return false;
+            }
 
-        // iterate through the components in the tab, check if the component exists
+            // it may have been made outside of this class, or with one of the value setters
+            return !hasComponent(Shuffleboard.getTab(tabName), key);
+        }
+    }
+
+    // iterate through the components in the tab, check if the component exists
+    private static boolean hasComponent(ShuffleboardTab tab, String key) {
         for (int i = 0; i < tab.getComponents().size(); i++) {
-            if (tab.getComponents().get(i).getTitle() == key) {
-                hasComponent = true;
-                break;
+            if (tab.getComponents().get(i).getTitle().equals(key)) {
+                return true;
             }
         }
+        return false;
+    }
 
-        // if the component doesnt exist, create it (since its a supplier, it will be updated
-        // automatically)
-        if (hasComponent) {
-            // do nothing
-        } else {
-            tab.addString(key, value);
+    private static void setValue(GenericEntry entry, Object value) {
+        if (value instanceof Double) {
+            entry.setDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            entry.setBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            entry.setString((String) value);
+        } else if (value instanceof double[]) {
+            entry.setDoubleArray((double[]) value);
         }
     }
 }
@@ -0,0 +1,43 @@
+package frc.robot.lib.shuffleboard;
+
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+
+/**
+ * A pose published by a {@link TelemetryPublisher} as {x, y, radians}, the
+ * layout the Field2d widget and AdvantageScope read.
+ *
+ * The pose is written into the same array every time, NetworkTables copies it
+ * when it is set.
+ */
+public class PoseSignal extends TelemetrySignal {
+    private final Supplier<Pose2d> value;
+    private final double[] buffer = new double[3];
+    private DoubleArrayPublisher publisher;
+
+    public PoseSignal(String key, Supplier<Pose2d> value, double period) {
+        super(key, period);
+        this.value = value;
+    }
+
+    public PoseSignal(String key, Supplier<Pose2d> value) {
+        this(key, value, Double.NaN);
+    }
+
+    @Override
+    void bind(NetworkTable table) {
+        publisher = table.getDoubleArrayTopic(getKey()).publish();
+    }
+
+    @Override
+    void publish() {
+        Pose2d pose = value.get();
+        buffer[0] = pose.getX();
+        buffer[1] = pose.getY();
+        buffer[2] = pose.getRotation().getRadians();
+        publisher.set(buffer);
+    }
+}
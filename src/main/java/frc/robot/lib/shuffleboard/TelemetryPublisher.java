@@ -0,0 +1,284 @@
+package frc.robot.lib.shuffleboard;
+
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.BooleanArrayPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+
+/**
+ * Publishes values to a shuffleboard tab from suppliers, within a time budget
+ * each loop.
+ *
+ * USAGE: Create a TelemetryPublisher in the constructor of your subsystem and
+ * add each value you want to log, with how often it should be published if it
+ * is different from the default. Then call {@link #loop()} in your periodic
+ * method.
+ *
+ * Each loop every value that is due is published, until the budget runs out.
+ * Values that were due but didn't fit are counted as dropped and published
+ * first next loop. The publishers are made when a value is added, so
+ * publishing a value is a supplier call and a set.
+ *
+ * Values are added as typed signals, {@link DoubleSignal}, {@link BoolSignal}
+ * and {@link PoseSignal}, or with the add methods for each type.
+ */
+public class TelemetryPublisher {
+    /** Default time each loop can spend publishing, in seconds */
+    public static final double DEFAULT_BUDGET = 200e-6;
+
+    /** Default time between publishing each value, in seconds */
+    public static final double DEFAULT_PERIOD = 0.1;
+
+    // How often the publish and drop counts are published
+    private static final long METRICS_PERIOD_NANOS = 1_000_000_000L;
+
+    private final NetworkTable table;
+    private final long budgetNanos;
+    private final double defaultPeriod;
+
+    private final ArrayList<TelemetrySignal> signals = new ArrayList<>();
+
+    // Where the next loop starts, so values late in the list aren't starved
+    private int cursor = 0;
+
+    private long publishedSamples = 0;
+    private long droppedSamples = 0;
+    private long lastCycleNanos = 0;
+
+    private final IntegerPublisher publishedPublisher;
+    private final IntegerPublisher droppedPublisher;
+    private final DoublePublisher cyclePublisher;
+    private long nextMetrics = 0;
+
+    /**
+     * Creates a TelemetryPublisher
+     *
+     * @param tab the shuffleboard tab to publish to
+     * @param defaultPeriod seconds between publishing each value, unless it is given a period
+     * @param budget max seconds to spend publishing each loop
+     */
+    public TelemetryPublisher(String tab, double defaultPeriod, double budget) {
+        this.table = NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab);
+        this.defaultPeriod = defaultPeriod;
+        this.budgetNanos = (long) (budget * 1e9);
+
+        NetworkTable metrics = NetworkTableInstance.getDefault().getTable("Telemetry").getSubTable(tab);
+        publishedPublisher = metrics.getIntegerTopic("published").publish();
+        droppedPublisher = metrics.getIntegerTopic("dropped").publish();
+        cyclePublisher = metrics.getDoubleTopic("cycle us").publish();
+    }
+
+    public TelemetryPublisher(String tab, double defaultPeriod) {
+        this(tab, defaultPeriod, DEFAULT_BUDGET);
+    }
+
+    public TelemetryPublisher(String tab) {
+        this(tab, DEFAULT_PERIOD, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Adds a typed signal, published at its own period or the default period
+     *
+     * @param signal the signal to publish, can only be added to one publisher
+     * @return this publisher, to chain adds
+     */
+    public TelemetryPublisher add(TelemetrySignal signal) {
+        signal.bind(table);
+        signal.setDefaultPeriod(defaultPeriod);
+        signals.add(signal);
+        return this;
+    }
+
+    public TelemetryPublisher addDouble(String key, DoubleSupplier value) {
+        return add(new DoubleSignal(key, value));
+    }
+
+    public TelemetryPublisher addDouble(String key, DoubleSupplier value, double period) {
+        return add(new DoubleSignal(key, value, period));
+    }
+
+    public TelemetryPublisher addBoolean(String key, BooleanSupplier value) {
+        return add(new BoolSignal(key, value));
+    }
+
+    public TelemetryPublisher addBoolean(String key, BooleanSupplier value, double period) {
+        return add(new BoolSignal(key, value, period));
+    }
+
+    public TelemetryPublisher addPose(String key, Supplier<Pose2d> value) {
+        return add(new PoseSignal(key, value));
+    }
+
+    public TelemetryPublisher addPose(String key, Supplier<Pose2d> value, double period) {
+        return add(new PoseSignal(key, value, period));
+    }
+
+    public TelemetryPublisher addString(String key, Supplier<String> value) {
+        return addString(key, value, Double.NaN);
+    }
+
+    public TelemetryPublisher addString(String key, Supplier<String> value, double period) {
+        return add(new TelemetrySignal(key, period) {
+            private StringPublisher publisher;
+
+            @Override
+            void bind(NetworkTable table) {
+                publisher = table.getStringTopic(key).publish();
+            }
+
+            @Override
+            void publish() {
+                publisher.set(value.get());
+            }
+        });
+    }
+
+    /**
+     * Adds an array of numbers. The supplier may return the same array every
+     * time, NetworkTables copies it when it is set.
+     */
+    public TelemetryPublisher addDoubleArray(String key, Supplier<double[]> value) {
+        return addDoubleArray(key, value, Double.NaN);
+    }
+
+    public TelemetryPublisher addDoubleArray(String key, Supplier<double[]> value, double period) {
+        return add(new TelemetrySignal(key, period) {
+            private DoubleArrayPublisher publisher;
+
+            @Override
+            void bind(NetworkTable table) {
+                publisher = table.getDoubleArrayTopic(key).publish();
+            }
+
+            @Override
+            void publish() {
+                publisher.set(value.get());
+            }
+        });
+    }
+
+    public TelemetryPublisher addBooleanArray(String key, Supplier<boolean[]> value) {
+        return addBooleanArray(key, value, Double.NaN);
+    }
+
+    public TelemetryPublisher addBooleanArray(String key, Supplier<boolean[]> value, double period) {
+        return add(new TelemetrySignal(key, period) {
+            private BooleanArrayPublisher publisher;
+
+            @Override
+            void bind(NetworkTable table) {
+                publisher = table.getBooleanArrayTopic(key).publish();
+            }
+
+            @Override
+            void publish() {
+                publisher.set(value.get());
+            }
+        });
+    }
+
+    public TelemetryPublisher addStringArray(String key, Supplier<String[]> value) {
+        return addStringArray(key, value, Double.NaN);
+    }
+
+    public TelemetryPublisher addStringArray(String key, Supplier<String[]> value, double period) {
+        return add(new TelemetrySignal(key, period) {
+            private StringArrayPublisher publisher;
+
+            @Override
+            void bind(NetworkTable table) {
+                publisher = table.getStringArrayTopic(key).publish();
+            }
+
+            @Override
+            void publish() {
+                publisher.set(value.get());
+            }
+        });
+    }
+
+    /**
+     * Publishes every value that is due, until the budget runs out. Call this
+     * in your periodic.
+     */
+    public void loop() {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int count = signals.size();
+
+        long now = start;
+        for (int i = 0; i < count; i++) {
+            TelemetrySignal signal = signals.get((cursor + i) % count);
+            if (!signal.isDue(now)) {
+                continue;
+            }
+
+            if (now > deadline) {
+                // Out of time, count everything else that is due as dropped and
+                // start with it next loop
+                droppedSamples += countDue(i, now);
+                cursor = (cursor + i) % count;
+                break;
+            }
+
+            signal.publish();
+            signal.schedule(now);
+            publishedSamples++;
+            now = System.nanoTime();
+        }
+
+        lastCycleNanos = now - start;
+        publishMetrics(now);
+    }
+
+    /**
+     * @return the number of values published since this was made
+     */
+    public long getPublishedSamples() {
+        return publishedSamples;
+    }
+
+    /**
+     * @return the number of values that were due but didn't fit in the budget
+     */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+
+    /**
+     * @return how long the last loop took to publish, in seconds
+     */
+    public double getLastCycleTime() {
+        return lastCycleNanos / 1e9;
+    }
+
+    private int countDue(int from, long now) {
+        int count = signals.size();
+        int due = 0;
+        for (int i = from; i < count; i++) {
+            if (signals.get((cursor + i) % count).isDue(now)) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    private void publishMetrics(long now) {
+        if (now >= nextMetrics) {
+            publishedPublisher.set(publishedSamples);
+            droppedPublisher.set(droppedSamples);
+            cyclePublisher.set(lastCycleNanos / 1e3);
+            nextMetrics = now + METRICS_PERIOD_NANOS;
+        }
+    }
+}
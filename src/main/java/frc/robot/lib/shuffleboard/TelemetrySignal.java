@@ -0,0 +1,62 @@
+package frc.robot.lib.shuffleboard;
+
+import edu.wpi.first.networktables.NetworkTable;
+
+/**
+ * A typed value published by a {@link TelemetryPublisher}.
+ *
+ * Each signal knows its own type, so publishing is a direct call on a typed
+ * publisher with no type checks. A signal can only be added to one
+ * TelemetryPublisher.
+ */
+public abstract class TelemetrySignal {
+    private final String key;
+    private final double period;
+
+    private long periodNanos;
+    private long nextPublish = 0;
+
+    /**
+     * @param key the name of the value on the dashboard
+     * @param period seconds between publishing the value, or NaN to use the publisher's default
+     */
+    TelemetrySignal(String key, double period) {
+        this.key = key;
+        this.period = period;
+    }
+
+    /**
+     * @return the name of the value on the dashboard
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Makes the publisher for the value, called once when the signal is added
+     *
+     * @param table the table of the dashboard tab
+     */
+    abstract void bind(NetworkTable table);
+
+    /**
+     * Reads the value and publishes it
+     */
+    abstract void publish();
+
+    void setDefaultPeriod(double defaultPeriod) {
+        periodNanos = (long) ((Double.isNaN(period) ? defaultPeriod : period) * 1e9);
+    }
+
+    boolean isDue(long now) {
+        return now >= nextPublish;
+    }
+
+    // Skips ahead if we fell behind instead of publishing a burst to catch up
+    void schedule(long now) {
+        nextPublish += periodNanos;
+        if (nextPublish < now) {
+            nextPublish = now + periodNanos;
+        }
+    }
+}
@@ -8,4 +8,16 @@ public interface AbsoluteEncoder {
      * @return The current angle in radians. Range: [0, 2pi)
      */
     double getAbsoluteAngle();
+
+    /**
+     * Sets how often the encoder sends its readings, if it is on the CAN bus
+     */
+    default void setStatusFrameProfile(StatusFrameProfile profile) {}
+
+    /**
+     * @return the frames per second this encoder sends with a profile, 0 if it isn't on the CAN bus
+     */
+    default double getStatusFramesPerSecond(StatusFrameProfile profile) {
+        return 0;
+    }
 }
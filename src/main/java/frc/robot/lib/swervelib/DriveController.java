@@ -3,6 +3,8 @@ package frc.robot.lib.swervelib;
 public interface DriveController {
     void setReferenceSpeed(double speedMetersPerSecond);
 
+    double getReferenceSpeed();
+
     double getStateVelocity();
 
     double getStatePosition();
@@ -14,4 +16,16 @@ public interface DriveController {
     double getAmperage();
 
     void setCurrentLimit(int amperage);
+
+    /**
+     * Sets how often the motor controller sends its status frames
+     */
+    default void setStatusFrameProfile(StatusFrameProfile profile) {}
+
+    /**
+     * @return the status frames per second this controller sends with a profile
+     */
+    default double getStatusFramesPerSecond(StatusFrameProfile profile) {
+        return 0;
+    }
 }
@@ -15,6 +15,8 @@ public final class Mk3SwerveModuleHelper {
                                 .withVoltageCompensation(configuration.getNominalVoltage())
                                 .withCurrentLimit(configuration.getDriveCurrentLimit())
                                 .withPidConstants(configuration.getDrivePIDGains())
+                                .withSetpointFilter(configuration.getDriveSetpointEpsilon(),
+                                                configuration.getSetpointRefreshPeriod())
                                 .build();
         }
 
@@ -24,6 +26,8 @@ public final class Mk3SwerveModuleHelper {
                                 .withVoltageCompensation(configuration.getNominalVoltage())
                                 .withPidConstants(1.0, 0.0, 0.1)
                                 .withCurrentLimit(configuration.getSteerCurrentLimit())
+                                .withSetpointFilter(configuration.getSteerSetpointEpsilon(),
+                                                configuration.getSetpointRefreshPeriod())
                                 .build(new CanCoderFactoryBuilder().withReadingUpdatePeriod(100)
                                                 .build());
         }
@@ -15,6 +15,9 @@ public class Mk4ModuleConfiguration {
     private double driveCurrentLimit = 80.0;
     private double steerCurrentLimit = 20.0;
     private SparkMaxPIDGains drivePIDGains = new SparkMaxPIDGains(0.0, 0.0, 0.0, 0.0);
+    private double driveSetpointEpsilon = 0.01;
+    private double steerSetpointEpsilon = Math.toRadians(0.1);
+    private double setpointRefreshPeriod = 0.5;
 
     public double getNominalVoltage() {
         return nominalVoltage;
@@ -48,6 +51,41 @@ public class Mk4ModuleConfiguration {
         this.drivePIDGains = drivePIDGains;
     }
 
+    public double getDriveSetpointEpsilon() {
+        return driveSetpointEpsilon;
+    }
+
+    /**
+     * Sets the smallest change in drive speed, in meters per second, that is sent to the motor
+     * controller. Use NaN to send every setpoint.
+     */
+    public void setDriveSetpointEpsilon(double driveSetpointEpsilon) {
+        this.driveSetpointEpsilon = driveSetpointEpsilon;
+    }
+
+    public double getSteerSetpointEpsilon() {
+        return steerSetpointEpsilon;
+    }
+
+    /**
+     * Sets the smallest change in steer angle, in radians, that is sent to the motor controller.
+     * Use NaN to send every setpoint.
+     */
+    public void setSteerSetpointEpsilon(double steerSetpointEpsilon) {
+        this.steerSetpointEpsilon = steerSetpointEpsilon;
+    }
+
+    public double getSetpointRefreshPeriod() {
+        return setpointRefreshPeriod;
+    }
+
+    /**
+     * Sets how often, in seconds, a setpoint is sent again even if it hasn't changed.
+     */
+    public void setSetpointRefreshPeriod(double setpointRefreshPeriod) {
+        this.setpointRefreshPeriod = setpointRefreshPeriod;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -16,6 +16,8 @@ public final class Mk4SwerveModuleHelper {
                                 .withVoltageCompensation(configuration.getNominalVoltage())
                                 .withCurrentLimit(configuration.getDriveCurrentLimit())
                                 .withPidConstants(configuration.getDrivePIDGains())
+                                .withSetpointFilter(configuration.getDriveSetpointEpsilon(),
+                                                configuration.getSetpointRefreshPeriod())
                                 .build();
         }
 
@@ -25,6 +27,8 @@ public final class Mk4SwerveModuleHelper {
                                 .withVoltageCompensation(configuration.getNominalVoltage())
                                 .withPidConstants(1.0, 0.0, 0.1)
                                 .withCurrentLimit(configuration.getSteerCurrentLimit())
+                                .withSetpointFilter(configuration.getSteerSetpointEpsilon(),
+                                                configuration.getSetpointRefreshPeriod())
                                 .build(new ThriftyBuilder().withReadingUpdatePeriod(100)
                                                 .build());
         }
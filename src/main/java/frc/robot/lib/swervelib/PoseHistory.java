@@ -0,0 +1,209 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A fixed size history of timestamped poses, for asking where the robot was
+ * at some time in the past.
+ *
+ * Poses are stored as primitives in a ring buffer, so adding one never
+ * allocates. Looking up a time is a binary search over the buffer, and the
+ * pose is interpolated between the two samples around it. Times older than
+ * the history give the oldest pose, and times newer than it give the newest.
+ *
+ * Samples are added from the odometry thread and read from anywhere, so every
+ * method is synchronized.
+ */
+public class PoseHistory {
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+
+    // Index of the oldest sample and how many samples there are
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Creates a PoseHistory
+     *
+     * @param capacity the number of poses to keep
+     */
+    public PoseHistory(int capacity) {
+        timestamps = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        thetas = new double[capacity];
+    }
+
+    /**
+     * Creates a PoseHistory big enough for a length of time
+     *
+     * @param seconds how long to keep poses for
+     * @param period seconds between each pose being added
+     */
+    public PoseHistory(double seconds, double period) {
+        this((int) Math.ceil(seconds / period) + 1);
+    }
+
+    /**
+     * Adds a pose. Poses must be added in time order, one older than the
+     * newest pose is ignored.
+     *
+     * @param timestamp the FPGA time of the pose, in seconds
+     * @param pose the pose
+     */
+    public void add(double timestamp, Pose2d pose) {
+        add(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Adds a pose. Poses must be added in time order, one older than the
+     * newest pose is ignored.
+     *
+     * @param timestamp the FPGA time of the pose, in seconds
+     * @param x the x of the pose in meters
+     * @param y the y of the pose in meters
+     * @param theta the rotation of the pose in radians
+     */
+    public synchronized void add(double timestamp, double x, double y, double theta) {
+        if (size > 0 && timestamp < timestamps[index(size - 1)]) {
+            return;
+        }
+
+        int i;
+        if (size < timestamps.length) {
+            i = index(size);
+            size++;
+        } else {
+            // Full, so write over the oldest
+            i = head;
+            head = index(1);
+        }
+
+        timestamps[i] = timestamp;
+        xs[i] = x;
+        ys[i] = y;
+        thetas[i] = theta;
+    }
+
+    /**
+     * Removes every pose, for when odometry is reset and the old poses no
+     * longer line up with the new ones
+     */
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Moves every pose from a time onward, for when a vision measurement
+     * corrects the estimate from that time
+     *
+     * @param timestamp the FPGA time of the first pose to move, in seconds
+     * @param dx meters to add to x
+     * @param dy meters to add to y
+     * @param dTheta radians to add to the rotation
+     */
+    public synchronized void shift(double timestamp, double dx, double dy, double dTheta) {
+        // Newest first, stopping at the first pose before the time
+        for (int n = size - 1; n >= 0; n--) {
+            int i = index(n);
+            if (timestamps[i] < timestamp) {
+                break;
+            }
+            xs[i] += dx;
+            ys[i] += dy;
+            thetas[i] = MathUtil.angleModulus(thetas[i] + dTheta);
+        }
+    }
+
+    /**
+     * @return the number of poses in the history
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the time of the oldest pose, or NaN if there are none
+     */
+    public synchronized double getOldestTimestamp() {
+        return size > 0 ? timestamps[head] : Double.NaN;
+    }
+
+    /**
+     * @return the time of the newest pose, or NaN if there are none
+     */
+    public synchronized double getNewestTimestamp() {
+        return size > 0 ? timestamps[index(size - 1)] : Double.NaN;
+    }
+
+    /**
+     * Gets where the robot was at a time, without allocating
+     *
+     * @param timestamp the FPGA time to look up, in seconds
+     * @param out filled with x meters, y meters and rotation radians
+     * @return false if the history is empty and nothing was written
+     */
+    public synchronized boolean sample(double timestamp, double[] out) {
+        if (size == 0) {
+            return false;
+        }
+
+        // Find the first sample at or after the time
+        int low = 0;
+        int high = size - 1;
+        if (timestamp <= timestamps[head]) {
+            high = 0;
+        } else if (timestamp >= timestamps[index(size - 1)]) {
+            low = size - 1;
+        } else {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[index(mid)] < timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+
+        int after = index(low);
+        if (low == 0 || timestamps[after] == timestamp || timestamp > timestamps[after]) {
+            out[0] = xs[after];
+            out[1] = ys[after];
+            out[2] = thetas[after];
+            return true;
+        }
+
+        int before = index(low - 1);
+        double t = (timestamp - timestamps[before]) / (timestamps[after] - timestamps[before]);
+        out[0] = MathUtil.interpolate(xs[before], xs[after], t);
+        out[1] = MathUtil.interpolate(ys[before], ys[after], t);
+        // Take the short way around when the angle wraps
+        out[2] = thetas[before] + MathUtil.angleModulus(thetas[after] - thetas[before]) * t;
+        return true;
+    }
+
+    /**
+     * Gets where the robot was at a time
+     *
+     * @param timestamp the FPGA time to look up, in seconds
+     * @return the pose at that time, or null if the history is empty
+     */
+    public Pose2d getPose(double timestamp) {
+        double[] out = new double[3];
+        if (!sample(timestamp, out)) {
+            return null;
+        }
+        return new Pose2d(out[0], out[1], new Rotation2d(out[2]));
+    }
+
+    // Index in the arrays of the nth oldest sample
+    private int index(int n) {
+        return (head + n) % timestamps.length;
+    }
+}
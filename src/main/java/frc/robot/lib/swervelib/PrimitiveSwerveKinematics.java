@@ -0,0 +1,113 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Swerve inverse kinematics on preallocated primitive arrays, for the drive
+ * loop.
+ *
+ * Does the same math as SwerveDriveKinematics.toSwerveModuleStates and
+ * desaturateWheelSpeeds, but writes each module's speed and angle into arrays
+ * owned by this class instead of making new module states, so converting
+ * chassis speeds every loop makes no garbage. Modules are indexed in the order
+ * their locations were given.
+ */
+public class PrimitiveSwerveKinematics {
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    private final double[] speeds;
+    private final double[] angles;
+
+    /**
+     * Creates a PrimitiveSwerveKinematics
+     *
+     * @param moduleLocations the location of each module relative to the center of the robot
+     */
+    public PrimitiveSwerveKinematics(Translation2d... moduleLocations) {
+        int count = moduleLocations.length;
+        moduleX = new double[count];
+        moduleY = new double[count];
+        speeds = new double[count];
+        angles = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            moduleX[i] = moduleLocations[i].getX();
+            moduleY[i] = moduleLocations[i].getY();
+        }
+    }
+
+    /**
+     * Converts robot relative chassis speeds to module speeds and angles. If
+     * the robot isn't moving each module keeps its last angle, so the wheels
+     * don't snap back to zero.
+     *
+     * @param vx forward speed in meters per second
+     * @param vy left speed in meters per second
+     * @param omega counterclockwise speed in radians per second
+     */
+    public void toModuleStates(double vx, double vy, double omega) {
+        if (vx == 0 && vy == 0 && omega == 0) {
+            for (int i = 0; i < speeds.length; i++) {
+                speeds[i] = 0;
+            }
+            return;
+        }
+
+        for (int i = 0; i < speeds.length; i++) {
+            double x = vx - omega * moduleY[i];
+            double y = vy + omega * moduleX[i];
+            speeds[i] = Math.hypot(x, y);
+            angles[i] = Math.atan2(y, x);
+        }
+    }
+
+    /**
+     * Scales every module speed down by the same amount if any of them is
+     * faster than a module can drive
+     *
+     * @param maxSpeed the fastest a module can drive, in meters per second
+     */
+    public void desaturate(double maxSpeed) {
+        desaturate(speeds, maxSpeed);
+    }
+
+    /**
+     * Scales every speed down by the same amount if any of them is faster
+     * than the max
+     *
+     * @param speeds module speeds, scaled in place
+     * @param maxSpeed the fastest a module can drive, in meters per second
+     */
+    public static void desaturate(double[] speeds, double maxSpeed) {
+        double fastest = 0;
+        for (double speed : speeds) {
+            fastest = Math.max(fastest, Math.abs(speed));
+        }
+
+        if (fastest > maxSpeed) {
+            double scale = maxSpeed / fastest;
+            for (int i = 0; i < speeds.length; i++) {
+                speeds[i] *= scale;
+            }
+        }
+    }
+
+    public int getModuleCount() {
+        return speeds.length;
+    }
+
+    /**
+     * @return the speed of a module in meters per second
+     */
+    public double getSpeed(int module) {
+        return speeds[module];
+    }
+
+    /**
+     * @return the angle of a module in radians
+     */
+    public double getAngle(int module) {
+        return angles[module];
+    }
+}
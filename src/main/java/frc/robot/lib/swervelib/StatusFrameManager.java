@@ -0,0 +1,98 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Switches every swerve module between status frame profiles and keeps track
+ * of how much of the CAN bus they should be using.
+ *
+ * The expected load is worked out from the profile of each device, and the
+ * measured load comes from the roboRIO, so the two can be compared when
+ * turning frame rates up for faster odometry. Control frames and devices
+ * outside the modules aren't in the expected load, so the measured load will
+ * always be a bit higher.
+ */
+public class StatusFrameManager {
+    /** Bits in an extended CAN frame with 8 data bytes, including typical bit stuffing */
+    public static final double BITS_PER_FRAME = 135;
+
+    /** Bits per second on the roboRIO CAN bus */
+    public static final double BUS_BITRATE = 1e6;
+
+    private final SwerveModule[] modules;
+    private StatusFrameProfile profile = StatusFrameProfile.DEFAULT;
+
+    /**
+     * Creates a StatusFrameManager
+     *
+     * @param modules the modules to manage, which start with the default profile
+     */
+    public StatusFrameManager(SwerveModule... modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * Applies a profile to every module. Does nothing if it is already applied,
+     * so it can be called every loop.
+     *
+     * @param profile the profile to use
+     */
+    public void setProfile(StatusFrameProfile profile) {
+        if (profile == this.profile) {
+            return;
+        }
+
+        for (SwerveModule module : modules) {
+            module.setStatusFrameProfile(profile);
+        }
+        this.profile = profile;
+    }
+
+    /**
+     * @return the profile the modules are using
+     */
+    public StatusFrameProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return the status frames per second the modules send with the current profile
+     */
+    public double getExpectedFramesPerSecond() {
+        return getExpectedFramesPerSecond(profile);
+    }
+
+    /**
+     * @param profile the profile to check
+     * @return the status frames per second the modules would send with a profile
+     */
+    public double getExpectedFramesPerSecond(StatusFrameProfile profile) {
+        double frames = 0;
+        for (SwerveModule module : modules) {
+            frames += module.getStatusFramesPerSecond(profile);
+        }
+        return frames;
+    }
+
+    /**
+     * @return the fraction of the bus the modules' status frames should use, from 0 to 1
+     */
+    public double getExpectedUtilization() {
+        return getExpectedUtilization(profile);
+    }
+
+    /**
+     * @param profile the profile to check
+     * @return the fraction of the bus the modules' status frames would use with a profile, from 0 to 1
+     */
+    public double getExpectedUtilization(StatusFrameProfile profile) {
+        return getExpectedFramesPerSecond(profile) * BITS_PER_FRAME / BUS_BITRATE;
+    }
+
+    /**
+     * @return the fraction of the bus in use as measured by the roboRIO, from 0 to 1
+     */
+    public double getMeasuredUtilization() {
+        return RobotController.getCANStatus().percentBusUtilization;
+    }
+}
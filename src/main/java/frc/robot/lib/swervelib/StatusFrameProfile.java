@@ -0,0 +1,150 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * How often each swerve device sends its status frames, in milliseconds.
+ *
+ * A profile sets status frames 0 (applied output and faults), 1 (velocity,
+ * temperature and current) and 2 (position) for the drive and steer NEOs,
+ * and the reading period of a CAN absolute encoder. The other SparkMax status
+ * frames are for sensors the modules don't use, so they are always set to
+ * {@link #UNUSED_FRAME_PERIOD}.
+ *
+ * Switch between profiles with a {@link StatusFrameManager}, for example fast
+ * position frames in auto for odometry and slow everything while disabled.
+ */
+public class StatusFrameProfile {
+    /** Period for the SparkMax status frames nothing reads, 3 through 6 */
+    public static final int UNUSED_FRAME_PERIOD = 500;
+
+    // Status frames 0 through 6
+    private static final int NEO_STATUS_FRAMES = 7;
+
+    /** The periods the modules start with, 100/20/20 ms on the NEOs and 100 ms on the encoder */
+    public static final StatusFrameProfile DEFAULT = builder("default").build();
+
+    private final String name;
+    private final int[] drivePeriods;
+    private final int[] steerPeriods;
+    private final int absoluteEncoderPeriod;
+
+    private StatusFrameProfile(Builder builder) {
+        this.name = builder.name;
+        this.drivePeriods = neoPeriods(builder.driveStatus0, builder.driveStatus1, builder.driveStatus2);
+        this.steerPeriods = neoPeriods(builder.steerStatus0, builder.steerStatus1, builder.steerStatus2);
+        this.absoluteEncoderPeriod = builder.absoluteEncoderPeriod;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param frame the status frame, 0 through 6
+     * @return the period of the frame on the drive NEO in milliseconds
+     */
+    public int getDrivePeriod(int frame) {
+        return drivePeriods[frame];
+    }
+
+    /**
+     * @param frame the status frame, 0 through 6
+     * @return the period of the frame on the steer NEO in milliseconds
+     */
+    public int getSteerPeriod(int frame) {
+        return steerPeriods[frame];
+    }
+
+    /**
+     * @return the period of the absolute encoder's readings in milliseconds
+     */
+    public int getAbsoluteEncoderPeriod() {
+        return absoluteEncoderPeriod;
+    }
+
+    /**
+     * @return the frames per second a drive NEO sends with this profile
+     */
+    public double getDriveFramesPerSecond() {
+        return framesPerSecond(drivePeriods);
+    }
+
+    /**
+     * @return the frames per second a steer NEO sends with this profile
+     */
+    public double getSteerFramesPerSecond() {
+        return framesPerSecond(steerPeriods);
+    }
+
+    /**
+     * @return the frames per second a CAN absolute encoder sends with this profile
+     */
+    public double getAbsoluteEncoderFramesPerSecond() {
+        return 1000.0 / absoluteEncoderPeriod;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int[] neoPeriods(int status0, int status1, int status2) {
+        int[] periods = new int[NEO_STATUS_FRAMES];
+        periods[0] = status0;
+        periods[1] = status1;
+        periods[2] = status2;
+        for (int i = 3; i < NEO_STATUS_FRAMES; i++) {
+            periods[i] = UNUSED_FRAME_PERIOD;
+        }
+        return periods;
+    }
+
+    private static double framesPerSecond(int[] periods) {
+        double frames = 0;
+        for (int period : periods) {
+            frames += 1000.0 / period;
+        }
+        return frames;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public static final class Builder {
+        private final String name;
+        private int driveStatus0 = 100;
+        private int driveStatus1 = 20;
+        private int driveStatus2 = 20;
+        private int steerStatus0 = 100;
+        private int steerStatus1 = 20;
+        private int steerStatus2 = 20;
+        private int absoluteEncoderPeriod = 100;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder withDrivePeriods(int status0, int status1, int status2) {
+            this.driveStatus0 = status0;
+            this.driveStatus1 = status1;
+            this.driveStatus2 = status2;
+            return this;
+        }
+
+        public Builder withSteerPeriods(int status0, int status1, int status2) {
+            this.steerStatus0 = status0;
+            this.steerStatus1 = status1;
+            this.steerStatus2 = status2;
+            return this;
+        }
+
+        public Builder withAbsoluteEncoderPeriod(int period) {
+            this.absoluteEncoderPeriod = period;
+            return this;
+        }
+
+        public StatusFrameProfile build() {
+            return new StatusFrameProfile(this);
+        }
+    }
+}
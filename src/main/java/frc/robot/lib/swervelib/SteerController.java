@@ -7,8 +7,23 @@ public interface SteerController {
 
     double getStateAngle();
 
+    double getAbsoluteAngle();
+
     void setMotorEncoderAngle();
 
     double getTemperature();
-}
 
+    double getAmperage();
+
+    /**
+     * Sets how often the motor controller and absolute encoder send its status frames
+     */
+    default void setStatusFrameProfile(StatusFrameProfile profile) {}
+
+    /**
+     * @return the status frames per second this controller sends with a profile
+     */
+    default double getStatusFramesPerSecond(StatusFrameProfile profile) {
+        return 0;
+    }
+}
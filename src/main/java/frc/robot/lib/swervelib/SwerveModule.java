@@ -5,8 +5,16 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 public interface SwerveModule {
     double getDriveVelocity();
 
+    double getDrivePosition();
+
+    double getDriveReferenceSpeed();
+
+    double getSteerReferenceAngle();
+
     double getSteerAngle();
 
+    double getAbsoluteAngle();
+
     double getDriveVoltage();
 
     SwerveModulePosition getPosition();
@@ -21,6 +29,12 @@ public interface SwerveModule {
 
     double getDriveAmperage();
 
+    double getSteerAmperage();
+
     void setDriveCurrentLimit(int amperage);
+
+    void setStatusFrameProfile(StatusFrameProfile profile);
+
+    double getStatusFramesPerSecond(StatusFrameProfile profile);
 }
 
@@ -53,11 +53,31 @@ public class SwerveModuleFactory<DriveConfiguration, SteerConfiguration> {
             return driveController.getStateVelocity();
         }
 
+        @Override
+        public double getDrivePosition() {
+            return driveController.getStatePosition();
+        }
+
+        @Override
+        public double getDriveReferenceSpeed() {
+            return driveController.getReferenceSpeed();
+        }
+
         @Override
         public double getSteerAngle() {
             return steerController.getStateAngle();
         }
 
+        @Override
+        public double getAbsoluteAngle() {
+            return steerController.getAbsoluteAngle();
+        }
+
+        @Override
+        public double getSteerReferenceAngle() {
+            return steerController.getReferenceAngle();
+        }
+
         @Override
         public SwerveModulePosition getPosition() {
             return new SwerveModulePosition(driveController.getStatePosition(),
@@ -130,9 +150,26 @@ public class SwerveModuleFactory<DriveConfiguration, SteerConfiguration> {
             return driveController.getAmperage();
         }
 
+        @Override
+        public double getSteerAmperage() {
+            return steerController.getAmperage();
+        }
+
         @Override
         public void setDriveCurrentLimit(int amperage) {
             driveController.setCurrentLimit(amperage);
         }
+
+        @Override
+        public void setStatusFrameProfile(StatusFrameProfile profile) {
+            driveController.setStatusFrameProfile(profile);
+            steerController.setStatusFrameProfile(profile);
+        }
+
+        @Override
+        public double getStatusFramesPerSecond(StatusFrameProfile profile) {
+            return driveController.getStatusFramesPerSecond(profile)
+                    + steerController.getStatusFramesPerSecond(profile);
+        }
     }
 }
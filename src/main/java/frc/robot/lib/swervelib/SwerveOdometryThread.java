@@ -0,0 +1,321 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleFunction;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * Runs a swerve pose estimator on its own thread.
+ *
+ * Each update samples the sensors with a {@link SwerveSensorSampler}, so the
+ * module positions, gyro yaw and FPGA timestamp all come from the same
+ * snapshot. The encoders and gyro only send new readings every 10 to 20 ms,
+ * so the thread polls faster than that and only updates the estimator when a
+ * reading has changed. Each pose is then stamped at most one poll period
+ * after its readings arrived, instead of integrating the same readings again
+ * at a later time. The latest pose is published through an atomic
+ * reference, so reading it never blocks, and every pose is added to a
+ * {@link PoseHistory}.
+ *
+ * Vision measurements can be added from any thread with the time they were
+ * captured. The estimator replays odometry from that time, so late
+ * measurements are fused where they belong, and the history from then on is
+ * moved by the correction. Measurements too old to replay, from the future,
+ * or too far from where the history says the robot was are rejected. Wheel
+ * only odometry is kept next to the estimate for comparison.
+ */
+public class SwerveOdometryThread {
+    private final SwerveSensorSampler sensors;
+    private final DoubleFunction<Rotation2d> yawToHeading;
+    private final SwerveDrivePoseEstimator estimator;
+    private final SwerveDriveOdometry rawOdometry;
+    private final SwerveModulePosition[] positions;
+    private final PoseHistory history;
+
+    // The readings the estimator was last updated with
+    private final double[] lastDrivePositions;
+    private final double[] lastSteerAngles;
+    private double lastYawDegrees;
+    private long skippedUpdates = 0;
+
+    private final Notifier notifier;
+
+    // How far back the estimator can replay a vision measurement, its buffer is 1.5 seconds
+    private static final double MAX_MEASUREMENT_AGE = 1.5;
+
+    // Guards the estimator, which is updated on the thread and reset or given vision from other threads
+    private final Object lock = new Object();
+
+    private final AtomicReference<TimedPose> latest;
+    private volatile Pose2d rawPose;
+
+    // When the sensors were last sampled, which keeps advancing while the readings don't change
+    private volatile double lastPollTimestamp;
+
+    // Vision measurements further than this from the pose history are rejected, in meters
+    private volatile double maxVisionError = Double.POSITIVE_INFINITY;
+
+    private long acceptedMeasurements = 0;
+    private long rejectedMeasurements = 0;
+
+    /**
+     * Creates a SwerveOdometryThread starting at the origin
+     *
+     * @param sensors the sampler for the modules, in the same order as the kinematics
+     * @param kinematics the kinematics of the drive
+     * @param yawToHeading converts a raw gyro yaw in degrees to the heading of the robot
+     * @param history where every pose is recorded
+     * @param stateStdDevs how much to trust odometry, x and y in meters and rotation in radians
+     * @param visionStdDevs how much to trust vision measurements that don't give their own
+     */
+    public SwerveOdometryThread(SwerveSensorSampler sensors, SwerveDriveKinematics kinematics, DoubleFunction<Rotation2d> yawToHeading, PoseHistory history,
+            Matrix<N3, N1> stateStdDevs, Matrix<N3, N1> visionStdDevs) {
+        this.sensors = sensors;
+        this.yawToHeading = yawToHeading;
+        this.history = history;
+
+        SwerveSensorSnapshot snapshot = sensors.sample();
+        positions = new SwerveModulePosition[snapshot.getModuleCount()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new SwerveModulePosition();
+        }
+        lastDrivePositions = new double[positions.length];
+        lastSteerAngles = new double[positions.length];
+        hasNewReadings(snapshot);
+        updatePositions(snapshot);
+
+        Rotation2d heading = yawToHeading.apply(snapshot.getYawDegrees());
+        estimator = new SwerveDrivePoseEstimator(kinematics, heading, positions, new Pose2d(), stateStdDevs, visionStdDevs);
+        rawOdometry = new SwerveDriveOdometry(kinematics, heading, positions);
+
+        latest = new AtomicReference<>(new TimedPose(estimator.getEstimatedPosition(), snapshot.getTimestamp()));
+        rawPose = rawOdometry.getPoseMeters();
+        lastPollTimestamp = snapshot.getTimestamp();
+        history.add(snapshot.getTimestamp(), estimator.getEstimatedPosition());
+
+        notifier = new Notifier(this::update);
+        notifier.setName("SwerveOdometry");
+    }
+
+    /**
+     * Starts updating odometry
+     *
+     * @param period seconds between updates, 0.004 to 0.01 works well
+     */
+    public void start(double period) {
+        notifier.startPeriodic(period);
+    }
+
+    /**
+     * Stops updating odometry
+     */
+    public void stop() {
+        notifier.stop();
+    }
+
+    /**
+     * @return the latest estimated pose
+     */
+    public Pose2d getPose() {
+        return latest.get().pose;
+    }
+
+    /**
+     * @return the latest estimated pose along with the time it was measured
+     */
+    public TimedPose getTimedPose() {
+        return latest.get();
+    }
+
+    /**
+     * @return the latest pose from the wheels and gyro alone, without vision
+     */
+    public Pose2d getRawPose() {
+        return rawPose;
+    }
+
+    /**
+     * Sets how far a vision measurement can be from where the pose history
+     * says the robot was before it is rejected
+     *
+     * @param meters the max distance, or infinity to accept every measurement
+     */
+    public void setMaxVisionError(double meters) {
+        maxVisionError = meters;
+    }
+
+    /**
+     * Adds a vision measurement, replaying odometry from when it was captured
+     *
+     * @param visionPose the pose of the robot from vision
+     * @param timestamp the FPGA time the image was captured, in seconds
+     * @param stdDevs how much to trust this measurement, x and y in meters and rotation in radians
+     * @return true if the measurement was used, false if it was rejected
+     */
+    public boolean addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs) {
+        synchronized (lock) {
+            // Gated on the last poll rather than the last pose, so vision is still used while the robot sits still
+            double now = lastPollTimestamp;
+            if (timestamp > now || now - timestamp > MAX_MEASUREMENT_AGE) {
+                rejectedMeasurements++;
+                return false;
+            }
+
+            Pose2d pastPose = history.getPose(timestamp);
+            if (pastPose != null && pastPose.getTranslation().getDistance(visionPose.getTranslation()) > maxVisionError) {
+                rejectedMeasurements++;
+                return false;
+            }
+
+            Pose2d before = estimator.getEstimatedPosition();
+            estimator.addVisionMeasurement(visionPose, timestamp, stdDevs);
+            Pose2d after = estimator.getEstimatedPosition();
+            latest.set(new TimedPose(after, latest.get().timestamp));
+
+            // The estimator replayed its own buffer, so move the history the same way. The correction is
+            // measured now and applied as is to every pose since the measurement
+            history.shift(timestamp, after.getX() - before.getX(), after.getY() - before.getY(),
+                    MathUtil.angleModulus(after.getRotation().getRadians() - before.getRotation().getRadians()));
+            acceptedMeasurements++;
+            return true;
+        }
+    }
+
+    /**
+     * @return the number of vision measurements that have been used
+     */
+    public long getAcceptedMeasurements() {
+        synchronized (lock) {
+            return acceptedMeasurements;
+        }
+    }
+
+    /**
+     * @return the number of vision measurements that have been rejected
+     */
+    public long getRejectedMeasurements() {
+        synchronized (lock) {
+            return rejectedMeasurements;
+        }
+    }
+
+    /**
+     * @return the number of polls skipped because no sensor had a new reading
+     */
+    public long getSkippedUpdates() {
+        synchronized (lock) {
+            return skippedUpdates;
+        }
+    }
+
+    /**
+     * Resets odometry to a pose, using the current sensor readings
+     *
+     * @param pose the pose the robot is at
+     */
+    public void resetPosition(Pose2d pose) {
+        synchronized (lock) {
+            SwerveSensorSnapshot snapshot = sensors.sample();
+            resetPosition(snapshot, yawToHeading.apply(snapshot.getYawDegrees()), pose);
+        }
+    }
+
+    /**
+     * Resets odometry to a pose, treating the given angle as the gyro's reading
+     *
+     * @param gyroAngle the angle to use for the gyro
+     * @param pose the pose the robot is at
+     */
+    public void resetPosition(Rotation2d gyroAngle, Pose2d pose) {
+        synchronized (lock) {
+            resetPosition(sensors.sample(), gyroAngle, pose);
+        }
+    }
+
+    private void resetPosition(SwerveSensorSnapshot snapshot, Rotation2d gyroAngle, Pose2d pose) {
+        hasNewReadings(snapshot);
+        updatePositions(snapshot);
+        estimator.resetPosition(gyroAngle, positions, pose);
+        rawOdometry.resetPosition(gyroAngle, positions, pose);
+        latest.set(new TimedPose(pose, snapshot.getTimestamp()));
+        rawPose = pose;
+        lastPollTimestamp = snapshot.getTimestamp();
+
+        // Poses from before the reset don't line up with the ones after it
+        history.clear();
+        history.add(snapshot.getTimestamp(), pose);
+    }
+
+    // Package-private so tests can poll without the notifier
+    void update() {
+        synchronized (lock) {
+            SwerveSensorSnapshot snapshot = sensors.sample();
+            lastPollTimestamp = snapshot.getTimestamp();
+            if (!hasNewReadings(snapshot)) {
+                skippedUpdates++;
+                return;
+            }
+
+            updatePositions(snapshot);
+            Rotation2d heading = yawToHeading.apply(snapshot.getYawDegrees());
+            Pose2d pose = estimator.updateWithTime(snapshot.getTimestamp(), heading, positions);
+            rawPose = rawOdometry.update(heading, positions);
+            latest.set(new TimedPose(pose, snapshot.getTimestamp()));
+            history.add(snapshot.getTimestamp(), pose);
+        }
+    }
+
+    // Checks for a new encoder or gyro frame since the last update, and remembers the readings if there is one
+    private boolean hasNewReadings(SwerveSensorSnapshot snapshot) {
+        boolean changed = snapshot.getYawDegrees() != lastYawDegrees;
+        for (int i = 0; i < positions.length && !changed; i++) {
+            changed = snapshot.getDrivePosition(i) != lastDrivePositions[i] || snapshot.getSteerAngle(i) != lastSteerAngles[i];
+        }
+
+        if (changed) {
+            lastYawDegrees = snapshot.getYawDegrees();
+            for (int i = 0; i < positions.length; i++) {
+                lastDrivePositions[i] = snapshot.getDrivePosition(i);
+                lastSteerAngles[i] = snapshot.getSteerAngle(i);
+            }
+        }
+        return changed;
+    }
+
+    // The estimator copies the positions, so the same objects are reused every update. Rotations can't
+    // be changed, so a new one is only made when the module has actually turned
+    private void updatePositions(SwerveSensorSnapshot snapshot) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i].distanceMeters = snapshot.getDrivePosition(i);
+
+            double angle = snapshot.getSteerAngle(i);
+            if (angle != positions[i].angle.getRadians()) {
+                positions[i].angle = new Rotation2d(angle);
+            }
+        }
+    }
+
+    /**
+     * A pose and the FPGA time it was measured, in seconds
+     */
+    public static final class TimedPose {
+        public final Pose2d pose;
+        public final double timestamp;
+
+        public TimedPose(Pose2d pose, double timestamp) {
+            this.pose = pose;
+            this.timestamp = timestamp;
+        }
+    }
+}
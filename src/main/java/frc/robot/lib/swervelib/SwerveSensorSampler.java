@@ -0,0 +1,135 @@
+package frc.robot.lib.swervelib;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Reads every sensor of a swerve drive once into a {@link SwerveSensorSnapshot}.
+ *
+ * Each CAN read is a blocking JNI call, so instead of reading the same value
+ * in several places each loop, sample once and share the snapshot. Sampling
+ * can be done from periodic with {@link #sample()}, or on its own thread at a
+ * higher rate with {@link #start(double)}.
+ *
+ * Samples are written into two preallocated snapshots in turn, so sampling
+ * never allocates. Other threads read the latest one with
+ * {@link #copyLatest(SwerveSensorSnapshot)}.
+ */
+public class SwerveSensorSampler {
+    private final SwerveModule[] modules;
+    private final DoubleSupplier yawDegrees;
+    private final DoubleSupplier pitchDegrees;
+    private final DoubleSupplier rollDegrees;
+
+    private Notifier notifier;
+    private volatile boolean running = false;
+
+    // The snapshot being written is never the latest one, and they only swap under the lock
+    private final Object swapLock = new Object();
+    private volatile SwerveSensorSnapshot latest;
+    private SwerveSensorSnapshot next;
+
+    /**
+     * Creates a SwerveSensorSampler and takes the first snapshot
+     *
+     * @param yawDegrees the gyro yaw
+     * @param pitchDegrees the gyro pitch
+     * @param rollDegrees the gyro roll
+     * @param modules the modules to sample, snapshots index them in this order
+     */
+    public SwerveSensorSampler(DoubleSupplier yawDegrees, DoubleSupplier pitchDegrees, DoubleSupplier rollDegrees, SwerveModule... modules) {
+        this.modules = modules;
+        this.yawDegrees = yawDegrees;
+        this.pitchDegrees = pitchDegrees;
+        this.rollDegrees = rollDegrees;
+
+        latest = new SwerveSensorSnapshot(modules.length);
+        next = new SwerveSensorSnapshot(modules.length);
+
+        sample();
+    }
+
+    /**
+     * Reads every sensor now and makes it the latest snapshot
+     *
+     * @return the new snapshot, which is written over two samples later, so
+     *         only use it on this thread until the next sample
+     */
+    public synchronized SwerveSensorSnapshot sample() {
+        SwerveSensorSnapshot snapshot = next;
+
+        snapshot.timestamp = Timer.getFPGATimestamp();
+        for (int i = 0; i < modules.length; i++) {
+            SwerveModule module = modules[i];
+            snapshot.drivePosition[i] = module.getDrivePosition();
+            snapshot.driveVelocity[i] = module.getDriveVelocity();
+            snapshot.steerAngle[i] = module.getSteerAngle();
+            snapshot.absoluteAngle[i] = module.getAbsoluteAngle();
+            snapshot.driveCurrent[i] = module.getDriveAmperage();
+            snapshot.steerCurrent[i] = module.getSteerAmperage();
+            snapshot.driveVoltage[i] = module.getDriveVoltage();
+            snapshot.driveTemperature[i] = module.getDriveTemperature();
+            snapshot.steerTemperature[i] = module.getSteerTemperature();
+        }
+        snapshot.yawDegrees = yawDegrees.getAsDouble();
+        snapshot.pitchDegrees = pitchDegrees.getAsDouble();
+        snapshot.rollDegrees = rollDegrees.getAsDouble();
+
+        synchronized (swapLock) {
+            next = latest;
+            latest = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Copies the most recent snapshot, from any thread
+     *
+     * @param into the snapshot to fill, with the same number of modules
+     */
+    public void copyLatest(SwerveSensorSnapshot into) {
+        synchronized (swapLock) {
+            into.copyFrom(latest);
+        }
+    }
+
+    /**
+     * @return the number of modules sampled
+     */
+    public int getModuleCount() {
+        return modules.length;
+    }
+
+    /**
+     * Starts sampling on its own thread
+     *
+     * @param period seconds between samples
+     */
+    public synchronized void start(double period) {
+        if (notifier == null) {
+            notifier = new Notifier(this::sample);
+            notifier.setName("SwerveSensorSampler");
+        }
+        notifier.startPeriodic(period);
+        running = true;
+    }
+
+    /**
+     * Stops sampling on its own thread
+     */
+    public synchronized void stop() {
+        if (notifier != null) {
+            notifier.stop();
+        }
+        running = false;
+    }
+
+    /**
+     * @return true if sampling on its own thread
+     */
+    public boolean isRunning() {
+        return running;
+    }
+}
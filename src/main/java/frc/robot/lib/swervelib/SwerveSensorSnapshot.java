@@ -0,0 +1,134 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Every sensor reading of a swerve drive from one point in time, taken by a
+ * {@link SwerveSensorSampler}.
+ *
+ * Snapshots are preallocated and reused so sampling never makes garbage. A
+ * snapshot returned by {@link SwerveSensorSampler#sample()} is only valid on
+ * the sampling thread until its next sample. To keep readings that don't
+ * change for a whole loop, make a snapshot once and fill it every loop with
+ * {@link SwerveSensorSampler#copyLatest(SwerveSensorSnapshot)}. Modules are
+ * indexed in the order they were given to the sampler.
+ */
+public final class SwerveSensorSnapshot {
+    // Only written by SwerveSensorSampler
+    double timestamp;
+
+    final double[] drivePosition;
+    final double[] driveVelocity;
+    final double[] steerAngle;
+    final double[] absoluteAngle;
+    final double[] driveCurrent;
+    final double[] steerCurrent;
+    final double[] driveVoltage;
+    final double[] driveTemperature;
+    final double[] steerTemperature;
+
+    double yawDegrees;
+    double pitchDegrees;
+    double rollDegrees;
+
+    /**
+     * Creates an empty snapshot to copy readings into
+     *
+     * @param moduleCount the number of modules the sampler has
+     */
+    public SwerveSensorSnapshot(int moduleCount) {
+        drivePosition = new double[moduleCount];
+        driveVelocity = new double[moduleCount];
+        steerAngle = new double[moduleCount];
+        absoluteAngle = new double[moduleCount];
+        driveCurrent = new double[moduleCount];
+        steerCurrent = new double[moduleCount];
+        driveVoltage = new double[moduleCount];
+        driveTemperature = new double[moduleCount];
+        steerTemperature = new double[moduleCount];
+    }
+
+    // Copies every reading from another snapshot with the same number of modules
+    void copyFrom(SwerveSensorSnapshot other) {
+        int count = drivePosition.length;
+        timestamp = other.timestamp;
+        System.arraycopy(other.drivePosition, 0, drivePosition, 0, count);
+        System.arraycopy(other.driveVelocity, 0, driveVelocity, 0, count);
+        System.arraycopy(other.steerAngle, 0, steerAngle, 0, count);
+        System.arraycopy(other.absoluteAngle, 0, absoluteAngle, 0, count);
+        System.arraycopy(other.driveCurrent, 0, driveCurrent, 0, count);
+        System.arraycopy(other.steerCurrent, 0, steerCurrent, 0, count);
+        System.arraycopy(other.driveVoltage, 0, driveVoltage, 0, count);
+        System.arraycopy(other.driveTemperature, 0, driveTemperature, 0, count);
+        System.arraycopy(other.steerTemperature, 0, steerTemperature, 0, count);
+        yawDegrees = other.yawDegrees;
+        pitchDegrees = other.pitchDegrees;
+        rollDegrees = other.rollDegrees;
+    }
+
+    /**
+     * @return the FPGA time the snapshot was taken, in seconds
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the number of modules in the snapshot
+     */
+    public int getModuleCount() {
+        return drivePosition.length;
+    }
+
+    public double getDrivePosition(int module) {
+        return drivePosition[module];
+    }
+
+    public double getDriveVelocity(int module) {
+        return driveVelocity[module];
+    }
+
+    /**
+     * @return the steer angle from the motor encoder in radians. Range: [0, 2pi)
+     */
+    public double getSteerAngle(int module) {
+        return steerAngle[module];
+    }
+
+    /**
+     * @return the steer angle from the absolute encoder in radians. Range: [0, 2pi)
+     */
+    public double getAbsoluteAngle(int module) {
+        return absoluteAngle[module];
+    }
+
+    public double getDriveCurrent(int module) {
+        return driveCurrent[module];
+    }
+
+    public double getSteerCurrent(int module) {
+        return steerCurrent[module];
+    }
+
+    public double getDriveVoltage(int module) {
+        return driveVoltage[module];
+    }
+
+    public double getDriveTemperature(int module) {
+        return driveTemperature[module];
+    }
+
+    public double getSteerTemperature(int module) {
+        return steerTemperature[module];
+    }
+
+    public double getYawDegrees() {
+        return yawDegrees;
+    }
+
+    public double getPitchDegrees() {
+        return pitchDegrees;
+    }
+
+    public double getRollDegrees() {
+        return rollDegrees;
+    }
+}
@@ -6,6 +6,7 @@ import com.ctre.phoenix.sensors.CANCoderConfiguration;
 import com.ctre.phoenix.sensors.CANCoderStatusFrame;
 import frc.robot.lib.swervelib.AbsoluteEncoder;
 import frc.robot.lib.swervelib.AbsoluteEncoderFactory;
+import frc.robot.lib.swervelib.StatusFrameProfile;
 
 public class CanCoderFactoryBuilder {
     private Direction direction = Direction.COUNTER_CLOCKWISE;
@@ -56,6 +57,18 @@ public class CanCoderFactoryBuilder {
 
             return angle;
         }
+
+        @Override
+        public void setStatusFrameProfile(StatusFrameProfile profile) {
+            // No timeout, this can be called from the robot loop
+            CtreUtils.checkCtreError(encoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData,
+                    profile.getAbsoluteEncoderPeriod(), 0), "Failed to configure CANCoder update rate");
+        }
+
+        @Override
+        public double getStatusFramesPerSecond(StatusFrameProfile profile) {
+            return profile.getAbsoluteEncoderFramesPerSecond();
+        }
     }
 
     public enum Direction {
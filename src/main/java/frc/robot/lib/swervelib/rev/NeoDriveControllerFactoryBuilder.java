@@ -11,6 +11,7 @@ import frc.robot.lib.shuffleboard.LightningShuffleboard;
 import frc.robot.lib.swervelib.DriveController;
 import frc.robot.lib.swervelib.DriveControllerFactory;
 import frc.robot.lib.swervelib.ModuleConfiguration;
+import frc.robot.lib.swervelib.StatusFrameProfile;
 
 import static frc.robot.lib.swervelib.rev.RevUtils.checkNeoError;
 
@@ -18,6 +19,9 @@ public final class NeoDriveControllerFactoryBuilder {
     private double nominalVoltage = Double.NaN;
     private double currentLimit = Double.NaN;
     private double kP, kI, kD, FF;
+    private double setpointEpsilon = Double.NaN;
+    private double setpointRefreshPeriod = Double.NaN;
+    private StatusFrameProfile statusFrameProfile = StatusFrameProfile.DEFAULT;
 
     public NeoDriveControllerFactoryBuilder withVoltageCompensation(double nominalVoltage) {
         this.nominalVoltage = nominalVoltage;
@@ -46,6 +50,31 @@ public final class NeoDriveControllerFactoryBuilder {
         return Double.isFinite(currentLimit);
     }
 
+    /**
+     * Only sends a new speed to the SparkMax when it changes, to save CAN bandwidth
+     *
+     * @param epsilon the smallest change in meters per second that is sent
+     * @param refreshPeriod seconds after which the speed is sent again even if it hasn't changed
+     */
+    public NeoDriveControllerFactoryBuilder withSetpointFilter(double epsilon, double refreshPeriod) {
+        this.setpointEpsilon = epsilon;
+        this.setpointRefreshPeriod = refreshPeriod;
+        return this;
+    }
+
+    /**
+     * Sets the status frame periods the NEO starts with, they can be changed later with a
+     * StatusFrameManager
+     */
+    public NeoDriveControllerFactoryBuilder withStatusFrameProfile(StatusFrameProfile profile) {
+        this.statusFrameProfile = profile;
+        return this;
+    }
+
+    public boolean hasSetpointFilter() {
+        return Double.isFinite(setpointEpsilon) && Double.isFinite(setpointRefreshPeriod);
+    }
+
     public DriveControllerFactory<ControllerImplementation, Integer> build() {
         return new FactoryImplementation();
     }
@@ -71,15 +100,7 @@ public final class NeoDriveControllerFactoryBuilder {
                         "Failed to set current limit for NEO");
             }
 
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100),
-                    "Failed to set periodic status frame 0 rate");
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20),
-                    "Failed to set periodic status frame 1 rate");
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20),
-                    "Failed to set periodic status frame 2 rate");
+            RevUtils.setStatusFramePeriods(motor, statusFrameProfile::getDrivePeriod);
             // Set neutral mode to brake
             motor.setIdleMode(CANSparkMax.IdleMode.kBrake);
 
@@ -90,7 +111,10 @@ public final class NeoDriveControllerFactoryBuilder {
             encoder.setPositionConversionFactor(positionConversionFactor);
             encoder.setVelocityConversionFactor(positionConversionFactor / 60.0);
 
-            return new ControllerImplementation(motor, encoder, kP, kI, kD, FF);
+            SetpointFilter filter = hasSetpointFilter() ? new SetpointFilter(setpointEpsilon, setpointRefreshPeriod)
+                    : new SetpointFilter(Double.NaN, 0);
+
+            return new ControllerImplementation(motor, encoder, filter, kP, kI, kD, FF);
         }
     }
 
@@ -98,11 +122,15 @@ public final class NeoDriveControllerFactoryBuilder {
         private final CANSparkMax motor;
         private final SparkMaxPIDController controller;
         private final RelativeEncoder encoder;
+        private final SetpointFilter filter;
+
+        private double referenceSpeed = 0;
 
-        private ControllerImplementation(CANSparkMax motor, RelativeEncoder encoder, double kP, double kI, double kD,
+        private ControllerImplementation(CANSparkMax motor, RelativeEncoder encoder, SetpointFilter filter, double kP, double kI, double kD,
                 double FF) {
             this.motor = motor;
             this.encoder = encoder;
+            this.filter = filter;
 
             this.controller = motor.getPIDController();
             controller.setP(kP);
@@ -115,7 +143,15 @@ public final class NeoDriveControllerFactoryBuilder {
 
         @Override
         public void setReferenceSpeed(double speedMetersPerSecond) {
-            controller.setReference(speedMetersPerSecond, ControlType.kVelocity);
+            referenceSpeed = speedMetersPerSecond;
+            if (filter.shouldSend(speedMetersPerSecond, ControlType.kVelocity)) {
+                controller.setReference(speedMetersPerSecond, ControlType.kVelocity);
+            }
+        }
+
+        @Override
+        public double getReferenceSpeed() {
+            return referenceSpeed;
         }
 
         @Override
@@ -147,5 +183,15 @@ public final class NeoDriveControllerFactoryBuilder {
         public void setCurrentLimit(int amperage) {
             motor.setSmartCurrentLimit(amperage);
         }
+
+        @Override
+        public void setStatusFrameProfile(StatusFrameProfile profile) {
+            RevUtils.setStatusFramePeriods(motor, profile::getDrivePeriod);
+        }
+
+        @Override
+        public double getStatusFramesPerSecond(StatusFrameProfile profile) {
+            return profile.getDriveFramesPerSecond();
+        }
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardContainer;
 import frc.robot.lib.swervelib.AbsoluteEncoder;
 import frc.robot.lib.swervelib.AbsoluteEncoderFactory;
 import frc.robot.lib.swervelib.ModuleConfiguration;
+import frc.robot.lib.swervelib.StatusFrameProfile;
 import frc.robot.lib.swervelib.SteerController;
 import frc.robot.lib.swervelib.SteerControllerFactory;
 
@@ -24,6 +25,11 @@ public final class NeoSteerControllerFactoryBuilder {
     private double nominalVoltage = Double.NaN;
     private double currentLimit = Double.NaN;
 
+    private double setpointEpsilon = Double.NaN;
+    private double setpointRefreshPeriod = Double.NaN;
+
+    private StatusFrameProfile statusFrameProfile = StatusFrameProfile.DEFAULT;
+
     public NeoSteerControllerFactoryBuilder withPidConstants(double proportional, double integral,
             double derivative) {
         this.pidProportional = proportional;
@@ -55,6 +61,31 @@ public final class NeoSteerControllerFactoryBuilder {
         return Double.isFinite(currentLimit);
     }
 
+    /**
+     * Only sends a new angle to the SparkMax when it changes, to save CAN bandwidth
+     *
+     * @param epsilon the smallest change in radians that is sent
+     * @param refreshPeriod seconds after which the angle is sent again even if it hasn't changed
+     */
+    public NeoSteerControllerFactoryBuilder withSetpointFilter(double epsilon, double refreshPeriod) {
+        this.setpointEpsilon = epsilon;
+        this.setpointRefreshPeriod = refreshPeriod;
+        return this;
+    }
+
+    /**
+     * Sets the status frame periods the NEO starts with, they can be changed later with a
+     * StatusFrameManager
+     */
+    public NeoSteerControllerFactoryBuilder withStatusFrameProfile(StatusFrameProfile profile) {
+        this.statusFrameProfile = profile;
+        return this;
+    }
+
+    public boolean hasSetpointFilter() {
+        return Double.isFinite(setpointEpsilon) && Double.isFinite(setpointRefreshPeriod);
+    }
+
     public <T> SteerControllerFactory<ControllerImplementation, NeoSteerConfiguration<T>> build(
             AbsoluteEncoderFactory<T> encoderFactory) {
         return new FactoryImplementation<>(encoderFactory);
@@ -84,15 +115,7 @@ public final class NeoSteerControllerFactoryBuilder {
 
             CANSparkMax motor = new CANSparkMax(steerConfiguration.getMotorPort(),
                     CANSparkMaxLowLevel.MotorType.kBrushless);
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100),
-                    "Failed to set periodic status frame 0 rate");
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20),
-                    "Failed to set periodic status frame 1 rate");
-            checkNeoError(
-                    motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20),
-                    "Failed to set periodic status frame 2 rate");
+            RevUtils.setStatusFramePeriods(motor, statusFrameProfile::getSteerPeriod);
             checkNeoError(motor.setIdleMode(CANSparkMax.IdleMode.kBrake),
                     "Failed to set NEO idle mode");
             motor.setInverted(!moduleConfiguration.isSteerInverted());
@@ -129,7 +152,10 @@ public final class NeoSteerControllerFactoryBuilder {
             checkNeoError(controller.setFeedbackDevice(integratedEncoder),
                     "Failed to set NEO PID feedback device");
 
-            return new ControllerImplementation(motor, absoluteEncoder);
+            SetpointFilter filter = hasSetpointFilter() ? new SetpointFilter(setpointEpsilon, setpointRefreshPeriod)
+                    : new SetpointFilter(Double.NaN, 0);
+
+            return new ControllerImplementation(motor, absoluteEncoder, filter);
         }
     }
 
@@ -142,6 +168,7 @@ public final class NeoSteerControllerFactoryBuilder {
         private final SparkMaxPIDController controller;
         private final RelativeEncoder motorEncoder;
         private final AbsoluteEncoder absoluteEncoder;
+        private final SetpointFilter filter;
 
         private double referenceAngleRadians = 0;
 
@@ -152,7 +179,12 @@ public final class NeoSteerControllerFactoryBuilder {
         private int resetCall = 0;
 
         public ControllerImplementation(CANSparkMax motor, AbsoluteEncoder absoluteEncoder) {
+            this(motor, absoluteEncoder, new SetpointFilter(Double.NaN, 0));
+        }
+
+        ControllerImplementation(CANSparkMax motor, AbsoluteEncoder absoluteEncoder, SetpointFilter filter) {
             this.motor = motor;
+            this.filter = filter;
             this.controller = motor.getPIDController();
             this.motorEncoder = motor.getEncoder();
             this.absoluteEncoder = absoluteEncoder;
@@ -188,6 +220,8 @@ public final class NeoSteerControllerFactoryBuilder {
                     double absoluteAngle = absoluteEncoder.getAbsoluteAngle();
                     motorEncoder.setPosition(absoluteAngle);
                     currentAngleRadians = absoluteAngle;
+                    // The encoder moved, so the old setpoint means something else now
+                    filter.reset();
                 }
             } else {
                 resetIteration = 0;
@@ -212,8 +246,10 @@ public final class NeoSteerControllerFactoryBuilder {
 
             this.referenceAngleRadians = referenceAngleRadians;
 
-            controller.setReference(adjustedReferenceAngleRadians,
-                    CANSparkMax.ControlType.kPosition);
+            if (filter.shouldSend(adjustedReferenceAngleRadians, CANSparkMax.ControlType.kPosition)) {
+                controller.setReference(adjustedReferenceAngleRadians,
+                        CANSparkMax.ControlType.kPosition);
+            }
         }
 
         @Override
@@ -227,9 +263,15 @@ public final class NeoSteerControllerFactoryBuilder {
             return motorAngleRadians;
         }
 
+        @Override
+        public double getAbsoluteAngle() {
+            return absoluteEncoder.getAbsoluteAngle();
+        }
+
         @Override
         public void setMotorEncoderAngle() {
             motorEncoder.setPosition(absoluteEncoder.getAbsoluteAngle());
+            filter.reset();
             resetCall++;
         }
 
@@ -237,5 +279,21 @@ public final class NeoSteerControllerFactoryBuilder {
         public double getTemperature() {
             return motor.getMotorTemperature();
         }
+
+        @Override
+        public double getAmperage() {
+            return motor.getOutputCurrent();
+        }
+
+        @Override
+        public void setStatusFrameProfile(StatusFrameProfile profile) {
+            RevUtils.setStatusFramePeriods(motor, profile::getSteerPeriod);
+            absoluteEncoder.setStatusFrameProfile(profile);
+        }
+
+        @Override
+        public double getStatusFramesPerSecond(StatusFrameProfile profile) {
+            return profile.getSteerFramesPerSecond() + absoluteEncoder.getStatusFramesPerSecond(profile);
+        }
     }
 }
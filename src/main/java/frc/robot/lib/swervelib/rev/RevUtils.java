@@ -1,5 +1,9 @@
 package frc.robot.lib.swervelib.rev;
 
+import java.util.function.IntUnaryOperator;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
 import com.revrobotics.REVLibError;
 import edu.wpi.first.wpilibj.DriverStation;
 
@@ -11,4 +15,18 @@ public final class RevUtils {
             DriverStation.reportError(String.format("%s: %s", message, error.toString()), false);
         }
     }
+
+    /**
+     * Sets every periodic status frame of a SparkMax
+     *
+     * @param motor the SparkMax
+     * @param periods gives the period in milliseconds of each frame, by frame number
+     */
+    public static void setStatusFramePeriods(CANSparkMax motor, IntUnaryOperator periods) {
+        PeriodicFrame[] frames = PeriodicFrame.values();
+        for (int i = 0; i < frames.length; i++) {
+            checkNeoError(motor.setPeriodicFramePeriod(frames[i], periods.applyAsInt(i)),
+                    "Failed to set periodic status frame " + i + " rate");
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package frc.robot.lib.swervelib.rev;
+
+import com.revrobotics.CANSparkMax.ControlType;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Decides whether a SparkMax setpoint is worth sending.
+ *
+ * Every setReference call is a CAN frame, even when the setpoint is the same
+ * as last loop. This remembers the last setpoint and control type that were
+ * sent and only lets a new one through when it changed by more than epsilon,
+ * when the control type changed, or when the refresh period has passed, so a
+ * lost frame can't leave the motor on an old setpoint for long. A setpoint of
+ * exactly zero is always sent if the last one wasn't, so stopping is exact.
+ */
+final class SetpointFilter {
+    private final double epsilon;
+    private final double refreshPeriod;
+
+    private double lastSetpoint = Double.NaN;
+    private ControlType lastControlType = null;
+    private double lastSendTime = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates a SetpointFilter
+     *
+     * @param epsilon the smallest change that is sent, or NaN to send every setpoint
+     * @param refreshPeriod seconds after which the setpoint is sent even if it hasn't changed
+     */
+    SetpointFilter(double epsilon, double refreshPeriod) {
+        this.epsilon = epsilon;
+        this.refreshPeriod = refreshPeriod;
+    }
+
+    /**
+     * Checks a setpoint, and if it should be sent, remembers it as sent
+     *
+     * @param setpoint the setpoint to send
+     * @param controlType the control type to send it with
+     * @return true if the setpoint should be sent to the motor controller
+     */
+    boolean shouldSend(double setpoint, ControlType controlType) {
+        double now = Timer.getFPGATimestamp();
+
+        boolean changed = controlType != lastControlType
+                || !(Math.abs(setpoint - lastSetpoint) <= epsilon)
+                || (setpoint == 0 && lastSetpoint != 0);
+
+        if (changed || now - lastSendTime >= refreshPeriod) {
+            lastSetpoint = setpoint;
+            lastControlType = controlType;
+            lastSendTime = now;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the last setpoint, so the next one is always sent. Call this
+     * when the motor controller's state changed some other way, like the
+     * encoder being reset.
+     */
+    void reset() {
+        lastSetpoint = Double.NaN;
+        lastControlType = null;
+    }
+}
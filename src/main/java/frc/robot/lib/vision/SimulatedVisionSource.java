@@ -0,0 +1,82 @@
+package frc.robot.lib.vision;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Pretends to be a camera, for testing vision fusion without one.
+ *
+ * USAGE: Create a SimulatedVisionSource with where the robot really is and
+ * where to send measurements, then call {@link #periodic()} every loop.
+ *
+ * Every period the true pose is captured with gaussian noise added, and it is
+ * sent with its capture time once the latency has passed, the same way a real
+ * camera's measurements arrive late.
+ */
+public class SimulatedVisionSource {
+    private final Supplier<Pose2d> truth;
+    private final VisionMeasurementConsumer consumer;
+    private final double period;
+    private final double latency;
+    private final Matrix<N3, N1> stdDevs;
+
+    private final Random random = new Random();
+    private final ArrayDeque<Capture> inFlight = new ArrayDeque<>();
+    private double lastCapture = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates a SimulatedVisionSource
+     *
+     * @param truth where the robot really is
+     * @param consumer where to send measurements
+     * @param period seconds between captures
+     * @param latency seconds from capture until the measurement is sent
+     * @param stdDevs the noise to add, x and y in meters and rotation in radians, also sent with each measurement
+     */
+    public SimulatedVisionSource(Supplier<Pose2d> truth, VisionMeasurementConsumer consumer, double period, double latency, Matrix<N3, N1> stdDevs) {
+        this.truth = truth;
+        this.consumer = consumer;
+        this.period = period;
+        this.latency = latency;
+        this.stdDevs = stdDevs;
+    }
+
+    /**
+     * Captures a measurement if one is due and sends any that have arrived.
+     * Call this in your periodic.
+     */
+    public void periodic() {
+        double now = Timer.getFPGATimestamp();
+
+        if (now - lastCapture >= period) {
+            Pose2d pose = truth.get();
+            Pose2d noisy = new Pose2d(pose.getX() + random.nextGaussian() * stdDevs.get(0, 0), pose.getY() + random.nextGaussian() * stdDevs.get(1, 0),
+                    pose.getRotation().plus(new Rotation2d(random.nextGaussian() * stdDevs.get(2, 0))));
+            inFlight.add(new Capture(noisy, now));
+            lastCapture = now;
+        }
+
+        while (!inFlight.isEmpty() && now - inFlight.peek().timestamp >= latency) {
+            Capture capture = inFlight.poll();
+            consumer.accept(capture.pose, capture.timestamp, stdDevs);
+        }
+    }
+
+    private static class Capture {
+        private final Pose2d pose;
+        private final double timestamp;
+
+        private Capture(Pose2d pose, double timestamp) {
+            this.pose = pose;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package frc.robot.lib.vision;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+
+/**
+ * Takes robot poses measured by vision, like Drivetrain::addVisionMeasurement
+ */
+@FunctionalInterface
+public interface VisionMeasurementConsumer {
+    /**
+     * @param visionPose the pose of the robot from vision
+     * @param timestamp the FPGA time the image was captured, in seconds
+     * @param stdDevs how much to trust the measurement, x and y in meters and rotation in radians
+     */
+    void accept(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs);
+}
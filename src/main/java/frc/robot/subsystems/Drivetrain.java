@@ -1,29 +1,35 @@
 package frc.robot.subsystems;
 
-import java.util.function.DoubleSupplier;
-import java.util.function.Supplier;
-
 import com.kauailabs.navx.frc.AHRS;
 
 import frc.robot.lib.swervelib.Mk3ModuleConfiguration;
 import frc.robot.lib.swervelib.Mk3SwerveModuleHelper;
 import frc.robot.lib.swervelib.Mk4ModuleConfiguration;
 import frc.robot.lib.swervelib.Mk4SwerveModuleHelper;
+import frc.robot.lib.swervelib.PoseHistory;
+import frc.robot.lib.swervelib.PrimitiveSwerveKinematics;
+import frc.robot.lib.swervelib.StatusFrameManager;
+import frc.robot.lib.swervelib.StatusFrameProfile;
 import frc.robot.lib.swervelib.SwerveModule;
+import frc.robot.lib.swervelib.SwerveOdometryThread;
+import frc.robot.lib.swervelib.SwerveSensorSampler;
+import frc.robot.lib.swervelib.SwerveSensorSnapshot;
 import edu.wpi.first.math.MathUtil;
-import edu.wpi.first.math.Pair;
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
-import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.SPI;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInLayouts;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
@@ -36,17 +42,22 @@ import frc.robot.Constants.DrivetrainConstants.Offsets;
 import frc.robot.Constants.RobotMap;
 import frc.robot.Constants.DrivetrainConstants.Gains;
 import frc.robot.Constants.DrivetrainConstants.HeadingGains;
+import frc.robot.Constants.DrivetrainConstants.StatusFrames;
 import frc.robot.lib.SparkMaxPIDGains;
+import frc.robot.lib.logging.SwerveDriveRecorder;
+import frc.robot.lib.profiling.LoopProfiler;
+import frc.robot.lib.profiling.LoopTimer;
 import frc.robot.lib.shuffleboard.LightningShuffleboard;
-import frc.robot.lib.shuffleboard.LightningShuffleboardPeriodic;
+import frc.robot.lib.shuffleboard.TelemetryPublisher;
+import frc.robot.lib.vision.SimulatedVisionSource;
 
 /**
  * The drivetrain subsystem
  */
 public class Drivetrain extends SubsystemBase {
 
-    // Creates our swerve kinematics using the robots track width and wheel base
-    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+    // Module locations using the robots track width and wheel base
+    private static final Translation2d[] MODULE_LOCATIONS = {
             // Front left
             new Translation2d(DrivetrainConstants.DRIVETRAIN_TRACKWIDTH_METERS / 2.0, DrivetrainConstants.DRIVETRAIN_WHEELBASE_METERS / 2.0),
             // Front right
@@ -54,16 +65,22 @@ public class Drivetrain extends SubsystemBase {
             // Back left
             new Translation2d(-DrivetrainConstants.DRIVETRAIN_TRACKWIDTH_METERS / 2.0, DrivetrainConstants.DRIVETRAIN_WHEELBASE_METERS / 2.0),
             // Back right
-            new Translation2d(-DrivetrainConstants.DRIVETRAIN_TRACKWIDTH_METERS / 2.0, -DrivetrainConstants.DRIVETRAIN_WHEELBASE_METERS / 2.0));
+            new Translation2d(-DrivetrainConstants.DRIVETRAIN_TRACKWIDTH_METERS / 2.0, -DrivetrainConstants.DRIVETRAIN_WHEELBASE_METERS / 2.0)};
+
+    // Creates our swerve kinematics, for odometry and auto
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(MODULE_LOCATIONS);
+
+    // The same kinematics on reused arrays, so driving doesn't allocate
+    private final PrimitiveSwerveKinematics driveKinematics = new PrimitiveSwerveKinematics(MODULE_LOCATIONS);
+
+    // The last speed and angle commanded to each module
+    private final double[] commandedSpeeds = new double[4];
+    private final double[] commandedAngles = new double[4];
 
 
     // public Pigeon2 gyro;
     public AHRS gyro = new AHRS(SPI.Port.kMXP);
 
-    // Creating our list of module states and module positions
-    private SwerveModuleState[] states = {new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()};
-    private SwerveModulePosition[] modulePositions = {new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition()};
-
     // Creating new pose, odometry, cahssis speeds
     private Pose2d pose = new Pose2d();
     private Pose2d rawPose = new Pose2d();
@@ -75,18 +92,35 @@ public class Drivetrain extends SubsystemBase {
     private final SwerveModule backLeftModule;
     private final SwerveModule backRightModule;
 
+    // Switches the modules' status frame rates with the robot mode
+    private final StatusFrameManager statusFrames;
+
+    // Reads every module sensor and the gyro, on the odometry thread. Everything else uses the latest snapshot
+    private final SwerveSensorSampler sensors;
+    private final SwerveSensorSnapshot snapshot = new SwerveSensorSnapshot(4);
+
     // Module steer offsets
     private double FRONT_LEFT_STEER_OFFSET = Offsets.Howitzer.FRONT_LEFT_STEER_OFFSET;
     private double BACK_LEFT_STEER_OFFSET = Offsets.Howitzer.BACK_LEFT_STEER_OFFSET;
     private double FRONT_RIGHT_STEER_OFFSET = Offsets.Howitzer.FRONT_RIGHT_STEER_OFFSET;
     private double BACK_RIGHT_STEER_OFFSET = Offsets.Howitzer.BACK_RIGHT_STEER_OFFSET;
 
-    // Swerve pose esitmator for odometry
-    SwerveDriveOdometry odometry = new SwerveDriveOdometry(kinematics, getYaw2d(), modulePositions);
+    // Swerve pose estimator for odometry, runs on its own thread as each new encoder or gyro frame arrives
+    private final SwerveOdometryThread odometry;
+
+    // Fake camera fed by wheel odometry, only made in simulation
+    private SimulatedVisionSource simulatedVision;
+
+    // Every pose from the odometry thread for the last few seconds, for latency compensation
+    private final PoseHistory poseHistory = new PoseHistory(DrivetrainConstants.POSE_HISTORY_SECONDS, DrivetrainConstants.ODOMETRY_PERIOD);
 
-    // Creates our drivetrain shuffleboard tab for displaying module data and a periodic shuffleboard for data that doesn't need constant updates
+    // Creates our drivetrain shuffleboard tab for displaying module data and a telemetry publisher for data that doesn't need constant updates
     private ShuffleboardTab tab = Shuffleboard.getTab("Drivetrain");
-    private LightningShuffleboardPeriodic periodicShuffleboard;
+    private TelemetryPublisher telemetry;
+
+    // Records the drivetrain to the DataLog every loop. Made on the first periodic, since the drivetrain is
+    // constructed before robotInit starts the log in the right directory
+    private SwerveDriveRecorder recorder;
     private final Mk3ModuleConfiguration swerveConfiguration = new Mk3ModuleConfiguration();
 
     // PIDController for heading compenstation
@@ -109,6 +143,10 @@ public class Drivetrain extends SubsystemBase {
     private boolean initialSync = false;
     private double initialTimeStamp = 0;
 
+    // Timers for the loop profiler
+    private final LoopTimer periodicTimer = LoopProfiler.getTimer("Drivetrain/periodic");
+    private final LoopTimer telemetryTimer = LoopProfiler.getTimer("Drivetrain/telemetry");
+
     /**
      * Creates a new Drivetrain.
      * 
@@ -131,6 +169,9 @@ public class Drivetrain extends SubsystemBase {
         swerveConfiguration.setSteerCurrentLimit(DrivetrainConstants.STEER_CURRENT_LIMIT);
         swerveConfiguration.setNominalVoltage(DrivetrainConstants.NOMINAL_VOLTAGE);
         swerveConfiguration.setDrivePIDGains(new SparkMaxPIDGains(Gains.kP, Gains.kI, Gains.kD, Gains.kF));
+        swerveConfiguration.setDriveSetpointEpsilon(DrivetrainConstants.DRIVE_SETPOINT_EPSILON);
+        swerveConfiguration.setSteerSetpointEpsilon(DrivetrainConstants.STEER_SETPOINT_EPSILON);
+        swerveConfiguration.setSetpointRefreshPeriod(DrivetrainConstants.SETPOINT_REFRESH_PERIOD);
         
         //TODO switch to MK4 if using Hurley bot
 
@@ -150,6 +191,22 @@ public class Drivetrain extends SubsystemBase {
         backRightModule = Mk3SwerveModuleHelper.createNeo(tab.getLayout("Back Right Module", BuiltInLayouts.kList).withSize(2, 4).withPosition(6, 0), swerveConfiguration,
                 Mk3SwerveModuleHelper.GearRatio.STANDARD, RobotMap.CAN.BACK_RIGHT_DRIVE_MOTOR, RobotMap.CAN.BACK_RIGHT_AZIMUTH_MOTOR, RobotMap.CAN.BACK_RIGHT_CANCODER, BACK_RIGHT_STEER_OFFSET);
 
+        statusFrames = new StatusFrameManager(frontLeftModule, frontRightModule, backLeftModule, backRightModule);
+        statusFrames.setProfile(StatusFrames.DISABLED);
+
+        sensors = new SwerveSensorSampler(gyro::getYaw, gyro::getPitch, gyro::getRoll, frontLeftModule, frontRightModule, backLeftModule, backRightModule);
+        sensors.copyLatest(snapshot);
+
+        odometry = new SwerveOdometryThread(sensors, kinematics, Drivetrain::yawFromDegrees, poseHistory, DrivetrainConstants.STANDARD_DEV_POSE_MATRIX,
+                DrivetrainConstants.STANDARD_DEV_VISION_MATRIX);
+        odometry.setMaxVisionError(DrivetrainConstants.MAX_VISION_POSE_ERROR);
+        odometry.start(DrivetrainConstants.ODOMETRY_PERIOD);
+
+        if (RobotBase.isSimulation()) {
+            simulatedVision = new SimulatedVisionSource(odometry::getRawPose, this::addVisionMeasurement, DrivetrainConstants.SIM_VISION_PERIOD,
+                    DrivetrainConstants.SIM_VISION_LATENCY, DrivetrainConstants.STANDARD_DEV_VISION_MATRIX);
+        }
+
         initialTimeStamp = Timer.getFPGATimestamp();
 
         // Initialize the shuffleboard values and start logging data
@@ -161,36 +218,31 @@ public class Drivetrain extends SubsystemBase {
 
     @Override
     public void periodic() {
+        periodicTimer.start();
+        sensors.copyLatest(snapshot);
+        statusFrames.setProfile(statusFrameProfileForMode());
+
         if (Timer.getFPGATimestamp() - initialTimeStamp < 1) {
             if (initialSync) {
                 // Setting start position and creating estimator
                 setInitialPose(new Pose2d(0, 0, new Rotation2d()));
 
                 // Setting states of the modules
-                states = new SwerveModuleState[] {
-                        new SwerveModuleState(frontLeftModule.getDriveVelocity(), frontLeftModule.getPosition().angle),
-                        new SwerveModuleState(frontRightModule.getDriveVelocity(), frontRightModule.getPosition().angle),
-                        new SwerveModuleState(backLeftModule.getDriveVelocity(), backLeftModule.getPosition().angle),
-                        new SwerveModuleState(backRightModule.getDriveVelocity(), backRightModule.getPosition().angle)};
-
                 updateOdometry();
-                updateDriveStates(states);
+                updateDriveStates(measuredStates());
                 resetNeoAngle();
 
                 initialSync = true;
             } else {
-                states = new SwerveModuleState[] {
-                        new SwerveModuleState(frontLeftModule.getDriveVelocity(), frontLeftModule.getPosition().angle),
-                        new SwerveModuleState(frontRightModule.getDriveVelocity(), frontRightModule.getPosition().angle),
-                        new SwerveModuleState(backLeftModule.getDriveVelocity(), backLeftModule.getPosition().angle),
-                        new SwerveModuleState(backRightModule.getDriveVelocity(), backRightModule.getPosition().angle)};
                 updateOdometry();
             }
         } else {
             updateOdometry();
 
-            periodicShuffleboard.loop();
+            telemetryTimer.start();
+            telemetry.loop();
             // periodicShuffleboardAuto.loop();
+            telemetryTimer.stop();
 
             if (DriverStation.isTeleop() && !hasLimitChanged) {
                 int newLimit = 53;
@@ -203,10 +255,52 @@ public class Drivetrain extends SubsystemBase {
             }
 
         }
+
+        if (recorder == null) {
+            recorder = new SwerveDriveRecorder(DataLogManager.getLog(), "Drivetrain", new String[] {"front left", "front right", "back left", "back right"},
+                    frontLeftModule, frontRightModule, backLeftModule, backRightModule);
+        }
+        recorder.record(snapshot, pose);
+        periodicTimer.stop();
+    }
+
+    // Status frames for the mode the robot is in
+    private StatusFrameProfile statusFrameProfileForMode() {
+        if (DriverStation.isDisabled()) {
+            return StatusFrames.DISABLED;
+        } else if (DriverStation.isAutonomous()) {
+            return StatusFrames.AUTO;
+        } else {
+            return StatusFrames.TELEOP;
+        }
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        simulatedVision.periodic();
     }
 
     public double getDriveVelocity() {
-        return (frontLeftModule.getDriveVelocity() + frontRightModule.getDriveVelocity() + backLeftModule.getDriveVelocity() + backRightModule.getDriveVelocity()) / 4;
+        return (snapshot.getDriveVelocity(0) + snapshot.getDriveVelocity(1) + snapshot.getDriveVelocity(2) + snapshot.getDriveVelocity(3)) / 4;
+    }
+
+    /**
+     * Gets the sensor readings from the start of this loop. The same snapshot is
+     * refilled every loop, so copy anything that needs to be kept longer.
+     *
+     * @return the latest sensor snapshot
+     */
+    public SwerveSensorSnapshot getSensorSnapshot() {
+        return snapshot;
+    }
+
+    // Module states measured in the latest snapshot
+    private SwerveModuleState[] measuredStates() {
+        SwerveModuleState[] measured = new SwerveModuleState[4];
+        for (int i = 0; i < 4; i++) {
+            measured[i] = new SwerveModuleState(snapshot.getDriveVelocity(i), new Rotation2d(snapshot.getSteerAngle(i)));
+        }
+        return measured;
     }
 
     /**
@@ -225,35 +319,32 @@ public class Drivetrain extends SubsystemBase {
      * @param chassisSpeeds the chassis speeds to convert to module states
      */
     public void drive(ChassisSpeeds chassisSpeeds) {
-        outputChassisSpeeds = chassisSpeeds;
-
-        // // If were not commanding any thing to the motors, make sure our states speeds are 0
-        // if (states != null && chassisSpeeds.vxMetersPerSecond == 0 && chassisSpeeds.vyMetersPerSecond == 0 && chassisSpeeds.omegaRadiansPerSecond == 0) {
-        //     states[0].speedMetersPerSecond = 0;
-        //     states[1].speedMetersPerSecond = 0;
-        //     states[2].speedMetersPerSecond = 0;
-        //     states[3].speedMetersPerSecond = 0;
-
-        // } else {
-            // If not set the states to the commanded chassis speeds
-            states = kinematics.toSwerveModuleStates(outputChassisSpeeds);
-        // }
+        drive(chassisSpeeds.vxMetersPerSecond, chassisSpeeds.vyMetersPerSecond, chassisSpeeds.omegaRadiansPerSecond);
+    }
 
-        // if (flipFL) {
-        //     states[0].speedMetersPerSecond *= -1;
-        // }
-        // if (flipFR) {
-        //     states[1].speedMetersPerSecond *= -1;
-        // }
-        // if (flipBL) {
-        //     states[2].speedMetersPerSecond *= -1;
-        // }
-        // if (flipBR) {
-        //     states[3].speedMetersPerSecond *= -1;
-        // }
+    /**
+     * Drives the robot with robot relative speeds. Converts them to module states on preallocated arrays, so
+     * this can be called every loop without making garbage.
+     * 
+     * @param vxMetersPerSecond forward speed in meters per second
+     * @param vyMetersPerSecond left speed in meters per second
+     * @param omegaRadiansPerSecond counterclockwise speed in radians per second
+     */
+    public void drive(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+        outputChassisSpeeds.vxMetersPerSecond = vxMetersPerSecond;
+        outputChassisSpeeds.vyMetersPerSecond = vyMetersPerSecond;
+        outputChassisSpeeds.omegaRadiansPerSecond = omegaRadiansPerSecond;
+
+        driveKinematics.toModuleStates(vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
+        driveKinematics.desaturate(DrivetrainConstants.MAX_VELOCITY_METERS_PER_SECOND);
+
+        for (int i = 0; i < 4; i++) {
+            commandedSpeeds[i] = driveKinematics.getSpeed(i);
+            commandedAngles[i] = driveKinematics.getAngle(i);
+        }
 
         // Sets the states to the modules
-        setStates(states);
+        setModules();
     }
 
     public ChassisSpeeds getOutputChassisSpeeds() {
@@ -291,30 +382,35 @@ public class Drivetrain extends SubsystemBase {
      */
     public void updateDriveStates(SwerveModuleState[] states) {
         if (states != null) {
-            SwerveModuleState frontLeftState = states[0];
-            SwerveModuleState frontRightState = states[1];
-            SwerveModuleState backLeftState = states[2];
-            SwerveModuleState backRightState = states[3];
+            for (int i = 0; i < 4; i++) {
+                commandedSpeeds[i] = states[i].speedMetersPerSecond;
+                commandedAngles[i] = states[i].angle.getRadians();
+            }
 
             // Normalize the wheel speeds if the magnitude of any wheel is greater than max velocity
-            SwerveDriveKinematics.desaturateWheelSpeeds(states, DrivetrainConstants.MAX_VELOCITY_METERS_PER_SECOND);
-
-            LightningShuffleboard.setDouble("drive", "fl speed", frontLeftState.speedMetersPerSecond);
+            PrimitiveSwerveKinematics.desaturate(commandedSpeeds, DrivetrainConstants.MAX_VELOCITY_METERS_PER_SECOND);
 
             // Sets the states to the modules
-            frontLeftModule.set(frontLeftState.speedMetersPerSecond, frontLeftState.angle.getRadians());
-            frontRightModule.set(frontRightState.speedMetersPerSecond, frontRightState.angle.getRadians());
-            backLeftModule.set(backLeftState.speedMetersPerSecond, backLeftState.angle.getRadians());
-            backRightModule.set(backRightState.speedMetersPerSecond, backRightState.angle.getRadians());
+            setModules();
         }
     }
 
+    // Sets the commanded speeds and angles to the modules
+    private void setModules() {
+        LightningShuffleboard.setDouble("drive", "fl speed", commandedSpeeds[0]);
+
+        frontLeftModule.set(commandedSpeeds[0], commandedAngles[0]);
+        frontRightModule.set(commandedSpeeds[1], commandedAngles[1]);
+        backLeftModule.set(commandedSpeeds[2], commandedAngles[2]);
+        backRightModule.set(commandedSpeeds[3], commandedAngles[3]);
+    }
+
     /**
-     * Updates odometry using the current yaw and module states.
+     * Updates the pose to the latest from the odometry thread.
      */
     public void updateOdometry() {
-        updateModulePositions();
-        pose = odometry.update(getYaw2d(), modulePositions);
+        pose = odometry.getPose();
+        rawPose = odometry.getRawPose();
 
         // if (DriverStation.getAlliance() == DriverStation.Alliance.Blue) {
         //     pose = new Pose2d(16.48 - pose.getX(), pose.getY(), pose.getRotation());
@@ -324,37 +420,30 @@ public class Drivetrain extends SubsystemBase {
      * 2 Method to set states of modules.
      */
     public void setStates(SwerveModuleState[] newStates) {
-        states = newStates;
-        updateOdometry();
-        updateDriveStates(states);
-
-    }
-
-    /**
-     * Updates the module positions array to the current positions of each module
-     */
-    public void updateModulePositions() {
-        modulePositions[0] = frontLeftModule.getPosition();
-        modulePositions[1] = frontRightModule.getPosition();
-        modulePositions[2] = backLeftModule.getPosition();
-        modulePositions[3] = backRightModule.getPosition();
+        updateDriveStates(newStates);
     }
 
     // Method to start sending values to the dashboard and start logging
-    @SuppressWarnings("unchecked")
     private void initializeShuffleboard() {
-        periodicShuffleboard = new LightningShuffleboardPeriodic("Drivetrain", DrivetrainConstants.LOG_PERIOD, 
-            new Pair<String, Object>("Gyro Yaw", (DoubleSupplier) () -> getYaw2d().getDegrees()),
-            new Pair<String, Object>("fl module position", (DoubleSupplier) () -> modulePositions[0].distanceMeters),
-            new Pair<String, Object>("fr module position", (DoubleSupplier) () -> modulePositions[1].distanceMeters),
-            new Pair<String, Object>("bl module position", (DoubleSupplier) () -> modulePositions[2].distanceMeters),
-            new Pair<String, Object>("br module position", (DoubleSupplier) () -> modulePositions[3].distanceMeters),
-            new Pair<String, Object>("fl amperage", (DoubleSupplier) () -> frontLeftModule.getDriveAmperage()),
-            new Pair<String, Object>("fr amperage", (DoubleSupplier) () -> frontRightModule.getDriveAmperage()),
-            new Pair<String, Object>("bl amperage", (DoubleSupplier) () -> backLeftModule.getDriveAmperage()),
-            new Pair<String, Object>("br amperage", (DoubleSupplier) () -> backRightModule.getDriveAmperage()),
-            new Pair<String, Object>("odo Pose", (Supplier<double[]>) () -> new double[] {pose.getX(), pose.getY(), pose.getRotation().getRadians()}),
-            new Pair<String, Object>("raw Pose", (Supplier<double[]>) () -> new double[] {rawPose.getX(), rawPose.getY(), rawPose.getRotation().getRadians()}));
+        telemetry = new TelemetryPublisher("Drivetrain", DrivetrainConstants.LOG_PERIOD)
+            .addDouble("Gyro Yaw", () -> yawFromDegrees(snapshot.getYawDegrees()).getDegrees())
+            .addDouble("fl module position", () -> snapshot.getDrivePosition(0))
+            .addDouble("fr module position", () -> snapshot.getDrivePosition(1))
+            .addDouble("bl module position", () -> snapshot.getDrivePosition(2))
+            .addDouble("br module position", () -> snapshot.getDrivePosition(3))
+            .addDouble("fl amperage", () -> snapshot.getDriveCurrent(0), DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("fr amperage", () -> snapshot.getDriveCurrent(1), DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("bl amperage", () -> snapshot.getDriveCurrent(2), DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("br amperage", () -> snapshot.getDriveCurrent(3), DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addPose("odo Pose", () -> pose)
+            .addPose("raw Pose", () -> rawPose)
+            .addDouble("vision accepted", odometry::getAcceptedMeasurements, DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("vision rejected", odometry::getRejectedMeasurements, DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("odometry skipped", odometry::getSkippedUpdates, DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addString("status frame profile", () -> statusFrames.getProfile().getName(), DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("CAN expected frames", statusFrames::getExpectedFramesPerSecond, DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("CAN expected %", () -> statusFrames.getExpectedUtilization() * 100, DrivetrainConstants.SLOW_LOG_PERIOD)
+            .addDouble("CAN measured %", () -> statusFrames.getMeasuredUtilization() * 100, DrivetrainConstants.SLOW_LOG_PERIOD);
     }
 
 
@@ -382,7 +471,21 @@ public class Drivetrain extends SubsystemBase {
      * @return the current heading of the robot in degrees from 0 to 360
      */
     public Rotation2d getYaw2d() {
-        return Rotation2d.fromDegrees(MathUtil.inputModulus(gyro.getYaw() - 90, 0, 360));
+        return yawFromDegrees(gyro.getYaw());
+    }
+
+    /**
+     * Gets the current rotation from the pigeon without allocating, for the drive loop
+     * 
+     * @return the current heading of the robot in radians from 0 to 2pi
+     */
+    public double getYawRadians() {
+        return Math.toRadians(MathUtil.inputModulus(gyro.getYaw() - 90, 0, 360));
+    }
+
+    // Converts a raw navx yaw to our heading, from 0 to 360
+    private static Rotation2d yawFromDegrees(double yawDegrees) {
+        return Rotation2d.fromDegrees(MathUtil.inputModulus(yawDegrees - 90, 0, 360));
     }
 
     /**
@@ -442,10 +545,56 @@ public class Drivetrain extends SubsystemBase {
     }
 
     /**
-     * Gets the current pose of the robot.
+     * Gets the current pose of the robot, the latest from the odometry thread.
      */
     public Pose2d getPose() {
-        return pose;
+        return odometry.getPose();
+    }
+
+    /**
+     * Adds a pose measured by vision to the pose estimator, with the default standard deviations.
+     * 
+     * @param visionPose the pose of the robot from vision
+     * @param timestamp the FPGA time the image was captured, in seconds
+     * @return true if the measurement was used, false if it was too old or too far from our pose
+     */
+    public boolean addVisionMeasurement(Pose2d visionPose, double timestamp) {
+        return addVisionMeasurement(visionPose, timestamp, DrivetrainConstants.STANDARD_DEV_VISION_MATRIX);
+    }
+
+    /**
+     * Adds a pose measured by vision to the pose estimator. Odometry is replayed from when the image was
+     * captured, so measurements that arrive late are still fused correctly.
+     * 
+     * @param visionPose the pose of the robot from vision
+     * @param timestamp the FPGA time the image was captured, in seconds
+     * @param stdDevs how much to trust the measurement, x and y in meters and rotation in radians
+     * @return true if the measurement was used, false if it was too old or too far from our pose
+     */
+    public boolean addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs) {
+        return odometry.addVisionMeasurement(visionPose, timestamp, stdDevs);
+    }
+
+    /**
+     * Gets where the robot was at a time in the last few seconds, interpolated
+     * between odometry updates. Times older than the history give the oldest
+     * pose kept.
+     * 
+     * @param timestamp the FPGA time in seconds, like Timer.getFPGATimestamp()
+     * @return the pose at that time
+     */
+    public Pose2d getPoseAt(double timestamp) {
+        Pose2d pastPose = poseHistory.getPose(timestamp);
+        return pastPose != null ? pastPose : getPose();
+    }
+
+    /**
+     * Gets the history of odometry poses.
+     * 
+     * @return the pose history
+     */
+    public PoseHistory getPoseHistory() {
+        return poseHistory;
     }
 
     /**
@@ -454,11 +603,13 @@ public class Drivetrain extends SubsystemBase {
      * @param pose the pose to which to set the odometry
      */
     public void resetOdometry(Pose2d pose) {
-        odometry.resetPosition(getYaw2d(), modulePositions, pose);
+        odometry.resetPosition(pose);
+        this.pose = pose;
     }
 
     public void poseReset(Pose2d pose) {
-        odometry.resetPosition(getHeading(), modulePositions, pose);
+        odometry.resetPosition(getHeading(), pose);
+        this.pose = pose;
     }
 
     /**
@@ -471,11 +622,15 @@ public class Drivetrain extends SubsystemBase {
     }
 
     /**
-     * Gets the states of the modules.
+     * Gets the states last commanded to the modules.
      * 
      * @return the states of the modules
      */
     public SwerveModuleState[] getStates() {
+        SwerveModuleState[] states = new SwerveModuleState[4];
+        for (int i = 0; i < 4; i++) {
+            states[i] = new SwerveModuleState(commandedSpeeds[i], new Rotation2d(commandedAngles[i]));
+        }
         return states;
     }
 
@@ -0,0 +1,62 @@
+package frc.robot.lib.pathplanner.com.pathplanner.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrajectoryCacheTest {
+  private static final String PATH = "B2[1]-C-LOW";
+
+  @TempDir File cacheDirectory;
+
+  @BeforeAll
+  static void initializeHal() {
+    HAL.initialize(500, 0);
+  }
+
+  @BeforeEach
+  void useTempCache() {
+    TrajectoryCache.setCacheDirectory(cacheDirectory);
+  }
+
+  @AfterEach
+  void useDefaultCache() {
+    TrajectoryCache.setCacheDirectory(null);
+  }
+
+  @Test
+  void differentConstraintsKeepTheirOwnEntries() throws IOException {
+    PathConstraints slow = new PathConstraints(1, 1);
+    PathConstraints fast = new PathConstraints(4, 3);
+
+    assertNotNull(PathPlanner.loadPath(PATH, slow));
+    assertNotNull(PathPlanner.loadPath(PATH, fast));
+    assertEquals(2, cacheDirectory.list().length);
+
+    byte[] fileContent =
+        Files.readAllBytes(
+            new File(Filesystem.getDeployDirectory(), "pathplanner/" + PATH + ".path").toPath());
+    PathResolution resolution = PathPlanner.getResolution(PATH);
+    byte[] slowKey = TrajectoryCache.key(fileContent, "path", false, List.of(slow), resolution);
+    byte[] fastKey = TrajectoryCache.key(fileContent, "path", false, List.of(fast), resolution);
+
+    // Loading the fast variant must not have replaced the slow one
+    String slowFile = TrajectoryCache.fileName(PATH, "path", slowKey);
+    String fastFile = TrajectoryCache.fileName(PATH, "path", fastKey);
+    assertNotEquals(slowFile, fastFile);
+    assertNotNull(TrajectoryCache.load(slowFile, slowKey));
+    assertNotNull(TrajectoryCache.load(fastFile, fastKey));
+  }
+}
@@ -0,0 +1,138 @@
+package frc.robot.lib.swervelib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+class SwerveOdometryThreadTest {
+    @BeforeAll
+    static void initializeHal() {
+        HAL.initialize(500, 0);
+    }
+
+    @BeforeEach
+    void pauseTiming() {
+        SimHooks.pauseTiming();
+    }
+
+    @AfterEach
+    void resumeTiming() {
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void acceptsVisionWhileReadingsDontChange() {
+        SwerveSensorSampler sensors = new SwerveSensorSampler(() -> 0, () -> 0, () -> 0,
+                new StillModule(), new StillModule(), new StillModule(), new StillModule());
+        SwerveDriveKinematics kinematics = new SwerveDriveKinematics(new Translation2d(0.3, 0.3),
+                new Translation2d(0.3, -0.3), new Translation2d(-0.3, 0.3), new Translation2d(-0.3, -0.3));
+        SwerveOdometryThread odometry = new SwerveOdometryThread(sensors, kinematics, Rotation2d::fromDegrees,
+                new PoseHistory(100), VecBuilder.fill(0.1, 0.1, 0.1), VecBuilder.fill(0.9, 0.9, 0.9));
+
+        // Every poll sees the same readings, so the estimator is never updated
+        for (int i = 0; i < 10; i++) {
+            SimHooks.stepTiming(0.005);
+            odometry.update();
+        }
+        assertEquals(10, odometry.getSkippedUpdates());
+
+        Pose2d visionPose = new Pose2d(0.5, 0, new Rotation2d());
+        assertTrue(odometry.addVisionMeasurement(visionPose, Timer.getFPGATimestamp(), VecBuilder.fill(0.9, 0.9, 0.9)));
+        assertEquals(1, odometry.getAcceptedMeasurements());
+        assertEquals(0, odometry.getRejectedMeasurements());
+    }
+
+    // A module that never moves, like every module in simulation
+    private static class StillModule implements SwerveModule {
+        @Override
+        public double getDriveVelocity() {
+            return 0;
+        }
+
+        @Override
+        public double getDrivePosition() {
+            return 0;
+        }
+
+        @Override
+        public double getDriveReferenceSpeed() {
+            return 0;
+        }
+
+        @Override
+        public double getSteerReferenceAngle() {
+            return 0;
+        }
+
+        @Override
+        public double getSteerAngle() {
+            return 0;
+        }
+
+        @Override
+        public double getAbsoluteAngle() {
+            return 0;
+        }
+
+        @Override
+        public double getDriveVoltage() {
+            return 0;
+        }
+
+        @Override
+        public SwerveModulePosition getPosition() {
+            return new SwerveModulePosition();
+        }
+
+        @Override
+        public void set(double speedMetersPerSecond, double steerAngle) {}
+
+        @Override
+        public void setEncoderAngle() {}
+
+        @Override
+        public double getDriveTemperature() {
+            return 0;
+        }
+
+        @Override
+        public double getSteerTemperature() {
+            return 0;
+        }
+
+        @Override
+        public double getDriveAmperage() {
+            return 0;
+        }
+
+        @Override
+        public double getSteerAmperage() {
+            return 0;
+        }
+
+        @Override
+        public void setDriveCurrentLimit(int amperage) {}
+
+        @Override
+        public void setStatusFrameProfile(StatusFrameProfile profile) {}
+
+        @Override
+        public double getStatusFramesPerSecond(StatusFrameProfile profile) {
+            return 0;
+        }
+    }
+}